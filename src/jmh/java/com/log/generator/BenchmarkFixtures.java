@@ -0,0 +1,186 @@
+package com.log.generator;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.OllamaOptions;
+import com.log.generator.provider.OllamaGenerationProvider;
+import com.log.generator.provider.TemplateGenerationProvider;
+import com.log.generator.service.AdaptiveBatchSizer;
+import com.log.generator.service.OllamaEndpoint;
+import com.log.generator.service.OllamaEndpointPool;
+import com.log.generator.service.OllamaMetrics;
+import com.log.generator.service.OllamaRequestFactory;
+import com.log.generator.service.OllamaResponseCache;
+import com.log.generator.service.OllamaResponseRepair;
+import com.log.generator.service.OllamaService;
+import com.log.generator.service.PromptService;
+import com.log.generator.service.SyntheticLogGeneratorService;
+import com.log.generator.service.TemplateService;
+import com.log.generator.sink.LogbackLogSink;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import net.logstash.logback.argument.StructuredArguments;
+import net.logstash.logback.composite.loggingevent.ArgumentsJsonProvider;
+import net.logstash.logback.composite.loggingevent.LogLevelJsonProvider;
+import net.logstash.logback.composite.loggingevent.LoggerNameJsonProvider;
+import net.logstash.logback.composite.loggingevent.LoggingEventFormattedTimestampJsonProvider;
+import net.logstash.logback.composite.loggingevent.LoggingEventJsonProviders;
+import net.logstash.logback.composite.loggingevent.MdcJsonProvider;
+import net.logstash.logback.composite.loggingevent.MessageJsonProvider;
+import net.logstash.logback.composite.loggingevent.StackTraceJsonProvider;
+import net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wires the generation services by hand for JMH, with Ollama replaced by a canned
+ * {@code /api/generate} response served from an in-memory exchange function.
+ */
+public final class BenchmarkFixtures {
+
+  public static final String CANNED_RESPONSE = resource("ollama/generate-response.json");
+
+  static {
+    // Per-entry INFO logging would dominate the measured paths
+    ((LoggerContext) LoggerFactory.getILoggerFactory())
+        .getLogger("com.log.generator").setLevel(Level.WARN);
+  }
+
+  private BenchmarkFixtures() {
+  }
+
+  public static LoggerContext loggerContext() {
+    LoggerContext context = new LoggerContext();
+    context.setMDCAdapter(new LogbackMDCAdapter());
+    return context;
+  }
+
+  public static ObjectMapper objectMapper() {
+    return new ObjectMapper().findAndRegisterModules();
+  }
+
+  public static OllamaOptions ollamaOptions() {
+    YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+    yaml.setResources(new ClassPathResource("application.yml"));
+    Properties properties = yaml.getObject();
+
+    OllamaOptions options = new OllamaOptions();
+    options.setBaseUrl("http://ollama.benchmark");
+    options.setModel(properties.getProperty("ollama.model"));
+    options.setFormats(Map.of(
+        "app-log", properties.getProperty("ollama.formats.app-log"),
+        "app-log-batch", properties.getProperty("ollama.formats.app-log-batch")));
+    return options;
+  }
+
+  public static PromptService promptService() {
+    PromptService promptService = new PromptService(new GeneratorOptions());
+    promptService.loadPrompts();
+    return promptService;
+  }
+
+  public static OllamaService ollamaService(ObjectMapper objectMapper) {
+    return ollamaService(objectMapper, Duration.ZERO);
+  }
+
+  /**
+   * Same as {@link #ollamaService(ObjectMapper)} with every response delayed by {@code latency},
+   * standing in for a slow model.
+   */
+  public static OllamaService ollamaService(ObjectMapper objectMapper, Duration latency) {
+    OllamaOptions options = ollamaOptions();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    WebClient webClient = WebClient.builder()
+        .baseUrl(options.getBaseUrl())
+        .exchangeFunction(_ -> {
+          Mono<ClientResponse> response = Mono.just(ClientResponse.create(HttpStatus.OK)
+              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+              .body(CANNED_RESPONSE)
+              .build());
+          return latency.isZero() ? response : response.delayElement(latency);
+        })
+        .build();
+    OllamaEndpointPool endpointPool = new OllamaEndpointPool(
+        List.of(new OllamaEndpoint(options.getBaseUrl(), webClient,
+            CircuitBreaker.ofDefaults("benchmark"))),
+        options.getBalancer(), meterRegistry);
+
+    return new OllamaService(objectMapper, endpointPool, options, promptService(),
+        new OllamaResponseCache(options, objectMapper, meterRegistry),
+        new AdaptiveBatchSizer(options), new OllamaRequestFactory(objectMapper, options,
+            new GeneratorOptions()),
+        new OllamaResponseRepair(objectMapper, options, meterRegistry),
+        new OllamaMetrics(options, meterRegistry));
+  }
+
+  public static SyntheticLogGeneratorService generatorService(OllamaService ollamaService) {
+    GeneratorOptions generatorOptions = new GeneratorOptions();
+    TemplateService templateService = new TemplateService(generatorOptions);
+    return new SyntheticLogGeneratorService(
+        List.of(new OllamaGenerationProvider(ollamaService),
+            new TemplateGenerationProvider(templateService)),
+        templateService, generatorOptions, new SimpleMeterRegistry());
+  }
+
+  public static StructuredLogResponse sampleEntry(ObjectMapper objectMapper) {
+    try {
+      String response = objectMapper.readTree(CANNED_RESPONSE).get("response").asText();
+      return objectMapper.readValue(response, StructuredLogResponse.class);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public static LoggingEventCompositeJsonEncoder syntheticEncoder(LoggerContext context) {
+    LoggingEventJsonProviders providers = new LoggingEventJsonProviders();
+    providers.addTimestamp(new LoggingEventFormattedTimestampJsonProvider());
+    providers.addLogLevel(new LogLevelJsonProvider());
+    providers.addLoggerName(new LoggerNameJsonProvider());
+    providers.addMessage(new MessageJsonProvider());
+    providers.addMdc(new MdcJsonProvider());
+    providers.addArguments(new ArgumentsJsonProvider());
+    providers.addStackTrace(new StackTraceJsonProvider());
+
+    LoggingEventCompositeJsonEncoder encoder = new LoggingEventCompositeJsonEncoder();
+    encoder.setContext(context);
+    encoder.setProviders(providers);
+    encoder.start();
+    return encoder;
+  }
+
+  public static ILoggingEvent syntheticEvent(LoggerContext context, StructuredLogResponse entry) {
+    return new LoggingEvent(BenchmarkFixtures.class.getName(),
+        context.getLogger("com.synthetic.DatabaseService"), Level.INFO, entry.getMessage(), null,
+        new Object[]{LogbackLogSink.getStructuredArgument(entry),
+            StructuredArguments.keyValue("metadata", entry.getMetadata())});
+  }
+
+  public static String resource(String path) {
+    try (InputStream inputStream = new ClassPathResource(path).getInputStream()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.log.generator;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.service.SyntheticLogGeneratorService;
+import java.util.concurrent.TimeUnit;
+import net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Context generation, prompt build, request serialization, WebClient decoding of a canned
+ * Ollama response, parsing and JSON encoding of the resulting event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+  private SyntheticLogGeneratorService generatorService;
+  private LoggerContext loggerContext;
+  private LoggingEventCompositeJsonEncoder encoder;
+
+  @Setup
+  public void setup() {
+    generatorService = BenchmarkFixtures.generatorService(
+        BenchmarkFixtures.ollamaService(BenchmarkFixtures.objectMapper()));
+    loggerContext = BenchmarkFixtures.loggerContext();
+    encoder = BenchmarkFixtures.syntheticEncoder(loggerContext);
+  }
+
+  @TearDown
+  public void tearDown() {
+    encoder.stop();
+    loggerContext.stop();
+  }
+
+  @Benchmark
+  public byte[] generateAndEncode() {
+    StructuredLogResponse entry = generatorService
+        .generateLogEntry(LogScenario.DATABASE_OPERATION, LogLevel.INFO)
+        .block();
+    return encoder.encode(BenchmarkFixtures.syntheticEvent(loggerContext, entry));
+  }
+}
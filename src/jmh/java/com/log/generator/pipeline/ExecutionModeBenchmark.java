@@ -0,0 +1,80 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.service.SyntheticLogGeneratorService;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Time to complete a burst of generations against a canned Ollama response delayed by
+ * {@code latencyMillis}, with the Reactor flatMap path versus one virtual thread per unit behind a
+ * semaphore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+  @Param({"2000"})
+  private int units;
+
+  @Param({"256", "2000"})
+  private int concurrency;
+
+  @Param({"50"})
+  private int latencyMillis;
+
+  private SyntheticLogGeneratorService generatorService;
+
+  @Setup
+  public void setup() {
+    generatorService = BenchmarkFixtures.generatorService(BenchmarkFixtures.ollamaService(
+        BenchmarkFixtures.objectMapper(), Duration.ofMillis(latencyMillis)));
+  }
+
+  @Benchmark
+  public Long reactor() {
+    return Flux.range(0, units)
+        .flatMap(_ -> generatorService.generateLogEntry(LogScenario.API_REQUEST, LogLevel.INFO),
+            concurrency)
+        .count()
+        .block();
+  }
+
+  @Benchmark
+  public void virtualThreads() {
+    Semaphore permits = new Semaphore(concurrency);
+    try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < units; i++) {
+        scope.execute(() -> {
+          permits.acquireUninterruptibly();
+          try {
+            generatorService.generateLogEntry(LogScenario.API_REQUEST, LogLevel.INFO).block();
+          } finally {
+            permits.release();
+          }
+        });
+      }
+    }
+  }
+}
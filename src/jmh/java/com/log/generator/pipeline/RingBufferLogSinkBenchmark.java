@@ -0,0 +1,69 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.OverflowPolicy;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.model.WaitStrategyType;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Producer-side cost of publishing into the ring with a consumer that only consumes CPU, per wait
+ * strategy and consumer count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RingBufferLogSinkBenchmark {
+
+  @Param({"SLEEPING", "YIELDING", "BLOCKING"})
+  private WaitStrategyType waitStrategy;
+
+  @Param({"1", "2"})
+  private int consumers;
+
+  private RingBufferLogSink ring;
+  private StructuredLogResponse entry;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    PipelineOptions.RingBuffer options = new PipelineOptions.RingBuffer();
+    options.setWaitStrategy(waitStrategy);
+    options.setConsumers(consumers);
+    options.setOverflowPolicy(OverflowPolicy.BLOCK);
+    ring = new RingBufferLogSink((_, _) -> Blackhole.consumeCPU(64), options,
+        new SimpleMeterRegistry());
+    entry = BenchmarkFixtures.sampleEntry(BenchmarkFixtures.objectMapper());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    ring.close();
+  }
+
+  @Benchmark
+  public void publish() {
+    ring.write(entry, LogScenario.API_REQUEST);
+  }
+}
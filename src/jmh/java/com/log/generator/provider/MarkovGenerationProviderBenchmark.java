@@ -0,0 +1,65 @@
+package com.log.generator.provider;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.PipelineOptions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Sampling cost of the Markov provider trained on {@code src/jmh/resources/markov/synthetic.log}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkovGenerationProviderBenchmark {
+
+  private MarkovGenerationProvider provider;
+  private GenerationRequest request;
+
+  @Setup
+  public void setup() throws IOException {
+    Path directory = Files.createTempDirectory("markov");
+    Path file = directory.resolve("synthetic.log");
+    try (InputStream in = new ClassPathResource("markov/synthetic.log").getInputStream()) {
+      Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    GeneratorOptions options = new GeneratorOptions();
+    options.getMarkov().setTrainingFile(file.toString());
+    provider = new MarkovGenerationProvider(BenchmarkFixtures.objectMapper(), options,
+        new PipelineOptions());
+    provider.train();
+    request = new GenerationRequest(LogScenario.DATABASE_OPERATION, LogLevel.INFO, Map.of(),
+        ThreadLocalRandom.current());
+  }
+
+  @Benchmark
+  public StructuredLogResponse generate() {
+    return provider.generate(request).block();
+  }
+}
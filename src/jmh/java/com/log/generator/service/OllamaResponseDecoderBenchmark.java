@@ -0,0 +1,172 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-pass {@link OllamaResponseDecoder} against the previous tree based path (read envelope,
+ * copy {@code response}, re-parse, drop metadata, bind), and the cost of salvaging what neither
+ * accepts. Setup checks decoding and salvage on the malformed output corpus in
+ * {@code ollama/malformed-responses.jsonl} before measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OllamaResponseDecoderBenchmark {
+
+  @Param({"CANNED", "CORPUS"})
+  private String input;
+
+  private ObjectMapper objectMapper;
+  private OllamaResponseDecoder decoder;
+  private OllamaResponseRepair repair;
+  private List<byte[]> bodies;
+  private List<String> malformed;
+
+  @Setup
+  public void setup() throws IOException {
+    objectMapper = BenchmarkFixtures.objectMapper();
+    decoder = new OllamaResponseDecoder(objectMapper);
+    repair = new OllamaResponseRepair(objectMapper, BenchmarkFixtures.ollamaOptions(),
+        new SimpleMeterRegistry());
+
+    List<byte[]> corpus = new ArrayList<>();
+    List<String> corpusMalformed = new ArrayList<>();
+    List<String> mismatches = new ArrayList<>();
+    for (String line : BenchmarkFixtures.resource("ollama/malformed-responses.jsonl").lines()
+        .toList()) {
+      JsonNode entry = objectMapper.readTree(line);
+      byte[] body = objectMapper.writeValueAsBytes(entry.get("body"));
+      corpus.add(body);
+
+      StructuredLogResponse decoded = decodeOrNull(body);
+      StructuredLogResponse legacy = treeDecodeOrNull(body);
+      boolean accepted = decoded != null;
+      String response = malformedResponse(body);
+      boolean salvaged = response != null
+          && repair.salvage(response, LogScenario.API_REQUEST, LogLevel.INFO).isPresent();
+      if (response != null) {
+        corpusMalformed.add(response);
+      }
+      if (accepted != "accept".equals(entry.get("expect").asText())
+          || accepted && legacy != null && !sameIgnoringMetadata(decoded, legacy)
+          || !accepted && salvaged != entry.path("salvage").asBoolean()) {
+        mismatches.add(entry.get("case").asText());
+      }
+    }
+    if (!mismatches.isEmpty()) {
+      throw new IllegalStateException("Decoder disagrees on corpus cases " + mismatches);
+    }
+
+    if ("CANNED".equals(input)) {
+      // what the "}\n" stop sequence leaves of the pretty-printed canned object
+      String response = objectMapper.readTree(BenchmarkFixtures.CANNED_RESPONSE)
+          .get("response").asText();
+      bodies = List.of(BenchmarkFixtures.CANNED_RESPONSE.getBytes(StandardCharsets.UTF_8));
+      malformed = List.of(response.substring(0, response.indexOf("}\n")));
+    } else {
+      bodies = corpus;
+      malformed = corpusMalformed;
+    }
+  }
+
+  @Benchmark
+  public void streaming(Blackhole blackhole) {
+    for (byte[] body : bodies) {
+      blackhole.consume(decodeOrNull(body));
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole blackhole) {
+    for (byte[] body : bodies) {
+      blackhole.consume(treeDecodeOrNull(body));
+    }
+  }
+
+  @Benchmark
+  public void salvage(Blackhole blackhole) {
+    for (String response : malformed) {
+      blackhole.consume(repair.salvage(response, LogScenario.API_REQUEST, LogLevel.INFO));
+    }
+  }
+
+  private String malformedResponse(byte[] body) {
+    try {
+      decoder.decode(body);
+      return null;
+    } catch (OllamaResponseDecoder.MalformedResponseException ex) {
+      return ex.getResponse();
+    } catch (IOException _) {
+      return null;
+    }
+  }
+
+  private StructuredLogResponse decodeOrNull(byte[] body) {
+    try {
+      return decoder.decode(body);
+    } catch (IOException | RuntimeException _) {
+      return null;
+    }
+  }
+
+  private StructuredLogResponse treeDecodeOrNull(byte[] body) {
+    try {
+      JsonNode response = objectMapper.readTree(body).get("response");
+      JsonNode node = objectMapper.readTree(response.asText());
+      if (node instanceof ObjectNode objectNode && objectNode.has("metadata")) {
+        JsonNode metadata = objectNode.get("metadata");
+        if (metadata.isNull() || metadata.asText().trim().isEmpty()) {
+          objectNode.remove("metadata");
+        }
+      }
+      return objectMapper.treeToValue(node, StructuredLogResponse.class);
+    } catch (IOException | RuntimeException _) {
+      return null;
+    }
+  }
+
+  // the tree path drops object metadata as a side effect of asText(), the decoders keep it
+  private static boolean sameIgnoringMetadata(StructuredLogResponse a, StructuredLogResponse b) {
+    return Objects.equals(a.getMessage(), b.getMessage())
+        && a.getLevel() == b.getLevel()
+        && Objects.equals(a.getUserId(), b.getUserId())
+        && Objects.equals(a.getRequestPath(), b.getRequestPath())
+        && Objects.equals(a.getServiceVersion(), b.getServiceVersion())
+        && Objects.equals(a.getDurationMs(), b.getDurationMs())
+        && Objects.equals(a.getSessionId(), b.getSessionId())
+        && Objects.equals(a.getResponseCode(), b.getResponseCode())
+        && Objects.equals(a.getThreadId(), b.getThreadId())
+        && Objects.equals(a.getEnvironment(), b.getEnvironment())
+        && Objects.equals(a.getInstanceId(), b.getInstanceId())
+        && Objects.equals(a.getRegion(), b.getRegion())
+        && Objects.equals(a.getStackTrace(), b.getStackTrace());
+  }
+}
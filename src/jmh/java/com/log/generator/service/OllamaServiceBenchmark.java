@@ -0,0 +1,45 @@
+package com.log.generator.service;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OllamaServiceBenchmark {
+
+  private static final byte[] CANNED_BODY =
+      BenchmarkFixtures.CANNED_RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+  private OllamaService ollamaService;
+
+  @Setup
+  public void setup() {
+    ollamaService = BenchmarkFixtures.ollamaService(BenchmarkFixtures.objectMapper());
+  }
+
+  @Benchmark
+  public StructuredLogResponse extractResponse() {
+    return ollamaService.extractResponse(
+        DefaultDataBufferFactory.sharedInstance.wrap(CANNED_BODY), LogScenario.API_REQUEST,
+        LogLevel.INFO, _ -> {});
+  }
+}
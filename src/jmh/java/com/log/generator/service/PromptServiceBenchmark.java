@@ -0,0 +1,46 @@
+package com.log.generator.service;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptServiceBenchmark {
+
+  @Param({"DATABASE_OPERATION", "USER_LOGIN"})
+  private LogScenario scenario;
+
+  private PromptService promptService;
+  private Map<String, Object> contextData;
+
+  @Setup
+  public void setup() {
+    promptService = BenchmarkFixtures.promptService();
+    contextData = BenchmarkFixtures.generatorService(
+        BenchmarkFixtures.ollamaService(BenchmarkFixtures.objectMapper()))
+        .generateEnhancedContextData(scenario);
+  }
+
+  @Benchmark
+  public String buildPrompt() {
+    return promptService.buildPrompt(scenario, LogLevel.ERROR, contextData);
+  }
+}
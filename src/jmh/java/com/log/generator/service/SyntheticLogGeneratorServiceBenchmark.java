@@ -0,0 +1,42 @@
+package com.log.generator.service;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogScenario;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyntheticLogGeneratorServiceBenchmark {
+
+  @Param({"DATABASE_OPERATION", "API_REQUEST", "USER_LOGIN"})
+  private LogScenario scenario;
+
+  private SyntheticLogGeneratorService generatorService;
+
+  @Setup
+  public void setup() {
+    generatorService = BenchmarkFixtures.generatorService(
+        BenchmarkFixtures.ollamaService(BenchmarkFixtures.objectMapper()));
+  }
+
+  @Benchmark
+  public Map<String, Object> generateEnhancedContextData() {
+    return generatorService.generateEnhancedContextData(scenario);
+  }
+}
@@ -0,0 +1,64 @@
+package com.log.generator.sink;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.logstash.logback.argument.StructuredArgument;
+import net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogSinkBenchmark {
+
+  private LoggerContext loggerContext;
+  private LoggingEventCompositeJsonEncoder encoder;
+  private JsonLineEncoder lineEncoder;
+  private StructuredLogResponse entry;
+
+  @Setup
+  public void setup() {
+    loggerContext = BenchmarkFixtures.loggerContext();
+    encoder = BenchmarkFixtures.syntheticEncoder(loggerContext);
+    lineEncoder = new JsonLineEncoder(BenchmarkFixtures.objectMapper());
+    entry = BenchmarkFixtures.sampleEntry(BenchmarkFixtures.objectMapper());
+  }
+
+  @TearDown
+  public void tearDown() {
+    encoder.stop();
+    loggerContext.stop();
+  }
+
+  @Benchmark
+  public StructuredArgument structuredArgument() {
+    return LogbackLogSink.getStructuredArgument(entry);
+  }
+
+  @Benchmark
+  public byte[] logbackEncode() {
+    return encoder.encode(BenchmarkFixtures.syntheticEvent(loggerContext, entry));
+  }
+
+  @Benchmark
+  public int jsonLineEncode() throws IOException {
+    return lineEncoder.encode(entry, LogScenario.DATABASE_OPERATION).size();
+  }
+}
@@ -0,0 +1,89 @@
+package com.log.generator.sink;
+
+import com.log.generator.BenchmarkFixtures;
+import com.log.generator.model.LogScenario;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Raw append throughput of pre-encoded lines from concurrent producers. {@code bytes} is reported
+ * per second alongside ops/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MappedSegmentLogSinkBenchmark {
+
+  @Param({"64"})
+  private int segmentMegabytes;
+
+  @Param({"false"})
+  private boolean compress;
+
+  private Path directory;
+  private MappedSegmentLogSink sink;
+  private byte[] line;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("mapped-sink");
+    PipelineOptions.Sink options = new PipelineOptions.Sink();
+    options.setFile(directory.resolve("synthetic.log").toString());
+    options.setSegmentSize(DataSize.ofMegabytes(segmentMegabytes));
+    options.setCompress(compress);
+
+    JsonLineEncoder encoder = new JsonLineEncoder(BenchmarkFixtures.objectMapper());
+    JsonLineEncoder.Line encoded = encoder.encode(
+        BenchmarkFixtures.sampleEntry(BenchmarkFixtures.objectMapper()),
+        LogScenario.DATABASE_OPERATION);
+    line = Arrays.copyOf(encoded.bytes(), encoded.size());
+    sink = new MappedSegmentLogSink(encoder, options, new SimpleMeterRegistry());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException, InterruptedException {
+    sink.close();
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Written {
+    public long bytes;
+  }
+
+  @Benchmark
+  public void append(Written written) {
+    sink.append(line, line.length);
+    written.bytes += line.length;
+  }
+}
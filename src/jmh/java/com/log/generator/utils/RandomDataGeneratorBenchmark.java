@@ -0,0 +1,73 @@
+package com.log.generator.utils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomDataGeneratorBenchmark {
+
+  private SplittableRandom random;
+  private StringBuilder builder;
+  private byte[] buffer;
+
+  @Setup
+  public void setup() {
+    random = new SplittableRandom(42);
+    builder = new StringBuilder(256);
+    buffer = new byte[256];
+  }
+
+  @Benchmark
+  public void stringFields(Blackhole blackhole) {
+    blackhole.consume(RandomDataGenerator.generateRandomIP());
+    blackhole.consume(RandomDataGenerator.generateRequestId());
+    blackhole.consume(RandomDataGenerator.generateInstanceId());
+    blackhole.consume(RandomDataGenerator.generateThreadId());
+    blackhole.consume(RandomDataGenerator.generateServiceVersion());
+    blackhole.consume(RandomDataGenerator.getRandomStatusCode());
+  }
+
+  @Benchmark
+  public int appendFields() {
+    builder.setLength(0);
+    RandomDataGenerator.appendRandomIP(builder, random).append(' ');
+    RandomDataGenerator.appendRequestId(builder, random).append(' ');
+    RandomDataGenerator.appendInstanceId(builder, random).append(' ');
+    RandomDataGenerator.appendThreadId(builder, random).append(' ');
+    RandomDataGenerator.appendServiceVersion(builder, random).append(' ')
+        .append(RandomDataGenerator.getRandomStatusCode(random));
+    return builder.length();
+  }
+
+  @Benchmark
+  public int writeFields() {
+    int offset = RandomDataGenerator.writeRandomIP(buffer, 0, random);
+    buffer[offset++] = ' ';
+    offset = RandomDataGenerator.writeRequestId(buffer, offset, random);
+    buffer[offset++] = ' ';
+    offset = RandomDataGenerator.writeInstanceId(buffer, offset, random);
+    buffer[offset++] = ' ';
+    offset = RandomDataGenerator.writeThreadId(buffer, offset, random);
+    buffer[offset++] = ' ';
+    offset = RandomDataGenerator.writeServiceVersion(buffer, offset, random);
+    buffer[offset++] = ' ';
+    return RandomDataGenerator.writeInt(buffer, offset,
+        RandomDataGenerator.getRandomStatusCode(random));
+  }
+}
@@ -1,25 +1,49 @@
 package com.log.generator;
 
+import com.log.generator.model.ExecutionMode;
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.GenerationMode;
 import com.log.generator.model.LogLevel;
 import com.log.generator.model.LogScenario;
 import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.pipeline.ConcurrencyGate;
+import com.log.generator.pipeline.RateController;
+import com.log.generator.pipeline.TrafficShaper;
+import com.log.generator.pipeline.UnitRandoms;
+import com.log.generator.pipeline.VirtualThreadRunner;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.OllamaOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.service.AdaptiveBatchSizer;
+import com.log.generator.service.TemplateService;
 import com.log.generator.service.SyntheticLogGeneratorService;
+import com.log.generator.sink.LogSink;
+import com.log.generator.trace.TracePlan;
+import com.log.generator.trace.TraceSynthesizer;
 import com.log.generator.utils.RandomDataGenerator;
-import io.github.resilience4j.circuitbreaker.CircuitBreaker;
-import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
-import net.logstash.logback.argument.StructuredArgument;
-import net.logstash.logback.argument.StructuredArguments;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
@@ -28,91 +52,361 @@ import reactor.util.retry.RetryBackoffSpec;
 
 @Component
 @EnableAsync
+@Profile("!export")
 public class ScheduledTasks {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ScheduledTasks.class);
+  private static final String PIPELINE_SCHEDULER = "SYN-LOG-PIPELINE";
 
   private final SyntheticLogGeneratorService logGenerator;
 
   @Value("${scheduled.max-parallel:8}")
   private Integer maxParallel;
 
-  private final CircuitBreaker circuitBreaker;
+  private final TemplateService templateService;
+  private final GeneratorOptions generatorOptions;
+  private final OllamaOptions ollamaOptions;
+  private final AdaptiveBatchSizer batchSizer;
+  private final PipelineOptions pipelineOptions;
+  private final RateController rateController;
+  private final LogSink logSink;
+  private final VirtualThreadRunner virtualThreads;
+  private final TrafficShaper trafficShaper;
+  private final TraceSynthesizer traceSynthesizer;
+  private final UnitRandoms unitRandoms;
+  private final Timer queueWait;
+
+  private ConcurrencyGate burstGate;
+  private Disposable pipeline;
+  private Thread pipelineThread;
+  // planned trace and the next unit's random source waiting for rate tokens; only touched by the
+  // dispatch thread
+  private TracePlan pendingTrace;
+  private RandomGenerator pendingRandom;
 
   public ScheduledTasks(
       SyntheticLogGeneratorService logGenerator,
-      CircuitBreaker circuitBreaker
+      TemplateService templateService,
+      GeneratorOptions generatorOptions,
+      OllamaOptions ollamaOptions,
+      AdaptiveBatchSizer batchSizer,
+      PipelineOptions pipelineOptions,
+      RateController rateController,
+      LogSink logSink,
+      VirtualThreadRunner virtualThreads,
+      TrafficShaper trafficShaper,
+      TraceSynthesizer traceSynthesizer,
+      UnitRandoms unitRandoms,
+      MeterRegistry meterRegistry
   ) {
     this.logGenerator = logGenerator;
-    this.circuitBreaker = circuitBreaker;
+    this.templateService = templateService;
+    this.generatorOptions = generatorOptions;
+    this.ollamaOptions = ollamaOptions;
+    this.batchSizer = batchSizer;
+    this.pipelineOptions = pipelineOptions;
+    this.rateController = rateController;
+    this.logSink = logSink;
+    this.virtualThreads = virtualThreads;
+    this.trafficShaper = trafficShaper;
+    this.traceSynthesizer = traceSynthesizer;
+    this.unitRandoms = unitRandoms;
+    // the continuous Reactor pipeline starts units as it dispatches them; only the Ollama calls
+    // of fixed-rate bursts wait, for the burst gate
+    this.queueWait = Timer.builder("pipeline.queue.wait")
+        .description("Time from dispatching a generation unit to starting it")
+        .tag("execution", "reactor")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  /**
+   * Reactor fixed-rate bursts overlap when Ollama is slower than the tick, so the Ollama calls of
+   * every burst share one gate of {@code scheduled.max-parallel}, whatever the burst size. With
+   * virtual threads the runner's semaphore is the only bound.
+   */
+  @PostConstruct
+  void createBurstGate() {
+    burstGate = new ConcurrencyGate(maxParallel,
+        Math.max(maxParallel, generatorOptions.getTemplates().getBurstSize()), queueWait);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startPipeline() {
+    PipelineOptions.RateControl rateControl = pipelineOptions.getRateControl();
+    if (!rateControl.isEnabled()) {
+      return;
+    }
+
+    LOGGER.info("Starting continuous generation pipeline target_rate={} lines/s tick={} "
+            + "execution={}", rateControl.getTargetLinesPerSecond(), rateControl.getTick(),
+        pipelineOptions.getExecution().getMode());
+    if (isVirtualThreads()) {
+      pipelineThread = virtualThreads.startLoop(PIPELINE_SCHEDULER, () -> {
+        while (!Thread.currentThread().isInterrupted()) {
+          dispatch();
+          LockSupport.parkNanos(rateControl.getTick().toNanos());
+        }
+      });
+      return;
+    }
+    pipeline = Flux.interval(rateControl.getTick(), Schedulers.newSingle(PIPELINE_SCHEDULER, true))
+        .onBackpressureDrop()
+        .subscribe(_ -> dispatch());
+  }
+
+  @PreDestroy
+  public void stopPipeline() {
+    if (pipeline != null) {
+      pipeline.dispose();
+    }
+    if (pipelineThread != null) {
+      pipelineThread.interrupt();
+    }
   }
 
   @Scheduled(fixedRateString = "${scheduled.task.synthetic-logs.fixed-rate:1000}")
   public void generateLogs() {
-    Flux.range(0, maxParallel)
-        .flatMap(_ -> {
-          LogScenario scenario = selectRandomScenario();
-          LogLevel level = selectWeightedLogLevel();
-
-          return logGenerator.generateLogEntry(scenario, level).transformDeferred(
-              CircuitBreakerOperator.of(circuitBreaker)
-          ).retryWhen(retrySpec()).doOnNext(entry ->
-              outputSyntheticLog(entry, scenario)
-          ).onErrorResume(ex -> {
-            LOGGER.warn("Synthetic log generation failed: {}", ex.toString());
-            return Mono.empty();
-          });
-        }).subscribeOn(Schedulers.boundedElastic())
+    if (pipelineOptions.getRateControl().isEnabled()) {
+      return;
+    }
+
+    if (isBatchMode()) {
+      generateLogBatches();
+      return;
+    }
+
+    int burst = isLocalProviderReady()
+        ? generatorOptions.getTemplates().getBurstSize()
+        : burstParallelism();
+    RandomGenerator[] randoms = unitRandoms.next(burst);
+    TracePlan[] traces = planTraces(randoms);
+    if (isVirtualThreads()) {
+      virtualThreads.submitBurst(burst,
+          index -> generateNext(traces[index], randoms[index], this::protect).block());
+      return;
+    }
+
+    // entries served locally complete at once; the gate bounds the ones that go to Ollama
+    Flux.range(0, burst)
+        .flatMap(index -> generateNext(traces[index], randoms[index], this::gated)
+            .onErrorResume(ex -> {
+              LOGGER.warn("Synthetic log generation failed: {}", ex.toString());
+              return Mono.empty();
+            }))
+        .subscribeOn(Schedulers.boundedElastic())
         .doOnError(error -> LOGGER.error("Error in scheduled log generation", error))
         .onErrorResume(_ -> Flux.empty())
         .subscribe();
   }
 
-  private LogScenario selectRandomScenario() {
-    LogScenario[] scenarios = LogScenario.values();
-    return scenarios[ThreadLocalRandom.current().nextInt(scenarios.length)];
+  private void generateLogBatches() {
+    int burst = burstParallelism();
+    RandomGenerator[] randoms = unitRandoms.next(burst);
+    if (isVirtualThreads()) {
+      virtualThreads.submitBurst(burst,
+          index -> generateBatch(batchSizer.currentSize(), randoms[index]).block());
+      return;
+    }
+
+    Flux.range(0, maxParallel)
+        .flatMap(index -> burstGate.run(generateBatch(batchSizer.currentSize(), randoms[index]))
+            .onErrorResume(ex -> {
+              LOGGER.warn("Synthetic log batch generation failed: {}", ex.toString());
+              return Mono.empty();
+            }))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnError(error -> LOGGER.error("Error in scheduled batch generation", error))
+        .onErrorResume(_ -> Flux.empty())
+        .subscribe();
   }
 
-  private LogLevel selectWeightedLogLevel() {
-    double randomValue = ThreadLocalRandom.current().nextDouble();
-    double cumulativeProbability = 0.0;
-    for (LogLevel level : LogLevel.values()) {
-      cumulativeProbability += level.getProbability();
-      if (randomValue <= cumulativeProbability) {
-        return level;
+  private void dispatch() {
+    try {
+      rateController.refill();
+      int lines = unitSize();
+      while (rateController.tryAcquire(lines)) {
+        TracePlan trace = pendingTrace;
+        RandomGenerator random = pendingRandom;
+        pendingTrace = null;
+        pendingRandom = null;
+        if (isVirtualThreads()) {
+          int size = lines;
+          virtualThreads.submit(() -> runUnit(trace, size, random));
+        } else {
+          long start = System.nanoTime();
+          generateUnit(trace, lines, random).defaultIfEmpty(0L).subscribe(
+              produced -> rateController.onSuccess(System.nanoTime() - start, produced),
+              ex -> {
+                rateController.onFailure();
+                LOGGER.warn("Synthetic log generation failed: {}", ex.toString());
+              });
+        }
+        lines = unitSize();
       }
+    } catch (Exception ex) {
+      LOGGER.error("Error in generation pipeline dispatch", ex);
     }
-    return LogLevel.INFO;
   }
 
-  private void outputSyntheticLog(StructuredLogResponse entry, LogScenario scenario) {
+  /**
+   * Lines in the next unit. The unit's random source is drawn here, once, so a unit waiting for
+   * rate tokens keeps its place in a seeded run.
+   */
+  private int unitSize() {
+    if (pendingRandom == null) {
+      pendingRandom = unitRandoms.next();
+    }
+    if (isTraceMode()) {
+      if (pendingTrace == null) {
+        pendingTrace = traceSynthesizer.plan(pendingRandom);
+      }
+      return pendingTrace.size();
+    }
+    return isBatchMode() ? batchSizer.currentSize() : 1;
+  }
+
+  private Mono<Long> generateUnit(TracePlan trace, int lines, RandomGenerator random) {
+    if (trace != null) {
+      return generateTrace(trace, this::protect);
+    }
+    return lines > 1 ? generateBatch(lines, random) : generateSingle(random, this::protect);
+  }
+
+  private void runUnit(TracePlan trace, int lines, RandomGenerator random) {
+    long start = System.nanoTime();
     try {
-      String loggerName = generateLoggerName(scenario);
-      Logger syntheticLogger = LoggerFactory.getLogger(loggerName);
-
-      var syntheticMetadata = getStructuredArgument(entry);
-      var metadata = entry.getMetadata() != null && !entry.getMetadata().isEmpty()
-          ? StructuredArguments.keyValue("metadata", entry.getMetadata())
-          : StructuredArguments.keyValue("metadata", Map.of("context", "generated"));
-
-      switch (entry.getLevel()) {
-        case TRACE -> syntheticLogger.trace(entry.getMessage(), syntheticMetadata, metadata);
-        case DEBUG -> syntheticLogger.debug(entry.getMessage(), syntheticMetadata, metadata);
-        case INFO -> syntheticLogger.info(entry.getMessage(), syntheticMetadata, metadata);
-        case WARN -> syntheticLogger.warn(entry.getMessage(), syntheticMetadata, metadata);
-        case ERROR -> {
-          if (entry.getStackTrace() != null && !entry.getStackTrace().trim().isEmpty()) {
-            syntheticLogger.error("{} Stack trace: {}", entry.getMessage(), entry.getStackTrace(),
-                syntheticMetadata, metadata);
-          } else {
-            syntheticLogger.error(entry.getMessage(), syntheticMetadata, metadata);
-          }
-        }
+      Long produced = generateUnit(trace, lines, random).block();
+      rateController.onSuccess(System.nanoTime() - start, produced != null ? produced : 0L);
+    } catch (RuntimeException ex) {
+      rateController.onFailure();
+      LOGGER.warn("Synthetic log generation failed: {}", ex.toString());
+    }
+  }
+
+  private Mono<Long> generateSingle(RandomGenerator random,
+      UnaryOperator<Mono<StructuredLogResponse>> llmGuard) {
+    Map.Entry<LogScenario, LogLevel> slot = trafficShaper.nextSlot(random);
+    LogScenario scenario = slot.getKey();
+
+    return logGenerator.generateLogEntry(scenario, slot.getValue(), random, llmGuard)
+        .doOnNext(response -> logSink.write(stampIds(response, random), scenario))
+        .map(_ -> 1L);
+  }
+
+  /**
+   * Plans the traces of a burst on the scheduling thread, in unit order: units run concurrently
+   * and the plans share the session pool. Empty slots outside trace mode.
+   */
+  private TracePlan[] planTraces(RandomGenerator[] randoms) {
+    TracePlan[] traces = new TracePlan[randoms.length];
+    if (isTraceMode()) {
+      for (int i = 0; i < randoms.length; i++) {
+        traces[i] = traceSynthesizer.plan(randoms[i]);
       }
+    }
+    return traces;
+  }
+
+  private Mono<Long> generateNext(TracePlan trace, RandomGenerator random,
+      UnaryOperator<Mono<StructuredLogResponse>> llmGuard) {
+    return trace != null ? generateTrace(trace, llmGuard) : generateSingle(random, llmGuard);
+  }
+
+  private Mono<Long> generateTrace(TracePlan trace,
+      UnaryOperator<Mono<StructuredLogResponse>> llmGuard) {
+    Flux<GeneratedEntry> entries = traceSynthesizer.generate(trace, llmGuard);
+    // written once complete, so a failed span does not leave a partial trace behind
+    return entries.collectList()
+        .doOnNext(lines -> lines.forEach(entry -> logSink.write(entry.response(),
+            entry.scenario())))
+        .map(lines -> (long) lines.size());
+  }
 
-    } catch (Exception e) {
-      LOGGER.error("Failed to output synthetic log entry", e);
+  private Mono<Long> generateBatch(int size, RandomGenerator random) {
+    return logGenerator.generateLogBatch(selectBatchSlots(size, random), random)
+        .retryWhen(retrySpec())
+        .doOnNext(entry -> logSink.write(stampIds(entry.response(), random), entry.scenario()))
+        .count();
+  }
+
+  /**
+   * In a seeded run, draws the ids the sinks would otherwise take from their thread's random,
+   * onto a copy: the entry may be shared, e.g. a response cache hit.
+   */
+  private StructuredLogResponse stampIds(StructuredLogResponse entry, RandomGenerator random) {
+    if (!unitRandoms.isSeeded()) {
+      return entry;
     }
+    StructuredLogResponse line = entry.copy();
+    line.setTransactionId(RandomDataGenerator.generateRequestId(random));
+    line.setCorrelationId(RandomDataGenerator.appendRandomId(new StringBuilder("corr-"), 31,
+        random).toString());
+    return line;
+  }
+
+  /**
+   * Ollama-bound units per fixed-rate burst: {@code pipeline.execution.max-concurrency} with
+   * virtual threads, {@code scheduled.max-parallel} otherwise.
+   */
+  private int burstParallelism() {
+    return isVirtualThreads() ? pipelineOptions.getExecution().getMaxConcurrency() : maxParallel;
+  }
+
+  private boolean isVirtualThreads() {
+    return pipelineOptions.getExecution().getMode() == ExecutionMode.VIRTUAL_THREADS;
+  }
+
+  private boolean isBatchMode() {
+    return generatorOptions.getMode() == GenerationMode.LLM && ollamaOptions.getBatch().isEnabled()
+        && !isTraceMode();
+  }
+
+  private boolean isTraceMode() {
+    return generatorOptions.getTrace().isEnabled();
+  }
+
+  private boolean isLocalProviderReady() {
+    return logGenerator.isLocalProviderReady();
+  }
+
+  /**
+   * Retry for a single Ollama call, which the endpoint pool already runs behind the breaker of
+   * the node it picks; applied per entry, so entries served locally skip it.
+   */
+  private Mono<StructuredLogResponse> protect(Mono<StructuredLogResponse> llmCall) {
+    return llmCall.retryWhen(retrySpec());
+  }
+
+  private Mono<StructuredLogResponse> gated(Mono<StructuredLogResponse> llmCall) {
+    return burstGate.run(protect(llmCall));
+  }
+
+  private List<Map.Entry<LogScenario, LogLevel>> selectBatchSlots(int size,
+      RandomGenerator random) {
+    List<Map.Entry<LogScenario, LogLevel>> slots = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      slots.add(trafficShaper.nextSlot(random));
+    }
+    return slots;
+  }
+
+  @Scheduled(fixedDelayString = "${generator.templates.refresh-interval:60000}")
+  public void refreshTemplates() {
+    if (generatorOptions.getMode() != GenerationMode.TEMPLATE) {
+      return;
+    }
+
+    Flux.fromIterable(templateService.leastPopulated(
+            generatorOptions.getTemplates().getRefreshBatch()))
+        .flatMap(key -> logGenerator.refreshTemplate(key.getKey(), key.getValue())
+            .onErrorResume(ex -> {
+              LOGGER.warn("Template refresh failed scenario={} level={}: {}", key.getKey(),
+                  key.getValue(), ex.toString());
+              return Mono.empty();
+            }), maxParallel)
+        .subscribeOn(Schedulers.boundedElastic())
+        .subscribe();
   }
 
   private RetryBackoffSpec retrySpec() {
@@ -120,41 +414,4 @@ public class ScheduledTasks {
         ex instanceof TimeoutException || ex instanceof WebClientRequestException
     );
   }
-
-  private static StructuredArgument getStructuredArgument(StructuredLogResponse entry) {
-    String transactionId = RandomDataGenerator.generateRequestId();
-    String correlationId = "corr-" + RandomDataGenerator.generateRandomId(31);
-
-    return StructuredArguments.entries(
-        Map.ofEntries(
-            Map.entry("user_id", entry.getUserId()),
-            Map.entry("transaction_id", transactionId),
-            Map.entry("request_path", entry.getRequestPath()),
-            Map.entry("service_version", entry.getServiceVersion()),
-            Map.entry("duration_ms", entry.getDurationMs()),
-            Map.entry("session_id", entry.getSessionId()),
-            Map.entry("response_code", entry.getResponseCode()),
-            Map.entry("thread_id", entry.getThreadId()),
-            Map.entry("environment", entry.getEnvironment()),
-            Map.entry("instance_id", entry.getInstanceId()),
-            Map.entry("region", entry.getRegion()),
-            Map.entry("correlation_id", correlationId)));
-  }
-
-  private String generateLoggerName(LogScenario scenario) {
-    String className = switch (scenario) {
-      case USER_LOGIN -> "UserAuthenticationService";
-      case DATABASE_OPERATION -> "DatabaseService";
-      case API_REQUEST -> "ApiController";
-      case ERROR_HANDLING -> "ErrorHandlerService";
-      case SECURITY_EVENT -> "SecurityService";
-      case PERFORMANCE_METRIC -> "PerformanceMonitorService";
-      case FILE_OPERATION -> "FileProcessorService";
-      case BUSINESS_LOGIC -> "BusinessLogicService";
-      case SYSTEM_STARTUP -> "ApplicationStartupService";
-      case CACHE_OPERATION -> "CacheService";
-    };
-    return "com.synthetic." + className;
-  }
-
 }
@@ -0,0 +1,37 @@
+package com.log.generator.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logging for the per-node Ollama breakers, built in {@link OllamaConfiguration} from the shared
+ * {@code ollama} configuration.
+ */
+@Slf4j
+public final class CircuitBreakerEvents {
+
+  private CircuitBreakerEvents() {
+  }
+
+  public static CircuitBreaker withEventLogging(CircuitBreaker cb) {
+    cb.getEventPublisher()
+        .onStateTransition(event ->
+            log.warn("Circuit breaker name={} state transition from={} to={} creation_time={}",
+                cb.getName(),
+                event.getStateTransition().getFromState(),
+                event.getStateTransition().getToState(),
+                event.getCreationTime()))
+        .onFailureRateExceeded(event ->
+            log.error("Circuit breaker name={} failure rate exceeded rate={} threshold={}",
+                cb.getName(), event.getFailureRate(),
+                cb.getCircuitBreakerConfig().getFailureRateThreshold()))
+        .onSlowCallRateExceeded(event ->
+            log.warn("Circuit breaker name={} slow call rate exceeded rate={} threshold={}",
+                cb.getName(), event.getSlowCallRate(),
+                cb.getCircuitBreakerConfig().getSlowCallRateThreshold()))
+        .onCallNotPermitted(event ->
+            log.info("Circuit breaker name={} call not permitted - Ollama protection active "
+                + "creation_time={}", cb.getName(), event.getCreationTime()));
+    return cb;
+  }
+}
@@ -2,23 +2,101 @@ package com.log.generator.config;
 
 
 import com.log.generator.properties.OllamaOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.service.OllamaEndpoint;
+import com.log.generator.service.OllamaEndpointPool;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class OllamaConfiguration {
 
+  private static final int PROBE_CONNECTIONS = 2;
+
   private final OllamaOptions ollamaOptions;
+  private final PipelineOptions pipelineOptions;
 
-  public OllamaConfiguration(OllamaOptions ollamaOptions) {
+  public OllamaConfiguration(OllamaOptions ollamaOptions, PipelineOptions pipelineOptions) {
     this.ollamaOptions = ollamaOptions;
+    this.pipelineOptions = pipelineOptions;
+  }
+
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider ollamaConnectionProvider() {
+    OllamaOptions.Connection connection = ollamaOptions.getConnection();
+    int maxConnections = connection.getMaxConnections() > 0
+        ? connection.getMaxConnections()
+        : pipelineOptions.maxConcurrentUnits() + PROBE_CONNECTIONS;
+
+    return ConnectionProvider.builder("ollama")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(connection.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(connection.getPendingAcquireTimeout())
+        .maxIdleTime(connection.getMaxIdleTime())
+        .maxLifeTime(connection.getMaxLifeTime())
+        .evictInBackground(connection.getEvictionInterval())
+        .metrics(true)
+        .build();
+  }
+
+  @Bean
+  public OllamaEndpointPool ollamaEndpointPool(
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      MeterRegistry meterRegistry,
+      ConnectionProvider ollamaConnectionProvider
+  ) {
+    HttpClient httpClient = ollamaHttpClient(ollamaConnectionProvider);
+    // one breaker per node; a pool-wide breaker on top would open on a single bad node
+    CircuitBreakerConfig nodeConfig = circuitBreakerRegistry.getConfiguration("ollama")
+        .orElseGet(circuitBreakerRegistry::getDefaultConfig);
+    List<String> urls = ollamaOptions.resolveEndpoints();
+    List<OllamaEndpoint> endpoints = new ArrayList<>(urls.size());
+
+    for (int i = 0; i < urls.size(); i++) {
+      CircuitBreaker circuitBreaker = CircuitBreakerEvents.withEventLogging(
+          circuitBreakerRegistry.circuitBreaker("ollama-node-" + i, nodeConfig));
+      endpoints.add(new OllamaEndpoint(urls.get(i), ollamaWebClient(urls.get(i), httpClient),
+          circuitBreaker));
+    }
+    return new OllamaEndpointPool(endpoints, ollamaOptions.getBalancer(), meterRegistry);
+  }
+
+  private HttpClient ollamaHttpClient(ConnectionProvider connectionProvider) {
+    OllamaOptions.Connection connection = ollamaOptions.getConnection();
+    HttpClient httpClient = HttpClient.create(connectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+            (int) connection.getConnectTimeout().toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .keepAlive(true)
+        .compress(connection.isCompression());
+
+    if (ollamaOptions.getTimeoutSeconds() > 0) {
+      httpClient = httpClient.responseTimeout(
+          Duration.ofSeconds(ollamaOptions.getTimeoutSeconds()));
+    }
+    if (connection.isH2c()) {
+      httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+    return httpClient;
   }
 
-  @Bean("ollamaWebClient")
-  public WebClient ollamaWebClient() {
+  private WebClient ollamaWebClient(String baseUrl, HttpClient httpClient) {
     return WebClient.builder()
-        .baseUrl(ollamaOptions.getBaseUrl())
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
         .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
         .build();
 
@@ -0,0 +1,41 @@
+package com.log.generator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.pipeline.RingBufferLogSink;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.sink.JsonFileLogSink;
+import com.log.generator.sink.JsonLineEncoder;
+import com.log.generator.sink.LogSink;
+import com.log.generator.sink.LogbackLogSink;
+import com.log.generator.sink.MappedSegmentLogSink;
+import com.log.generator.sink.TimedLogSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SinkConfiguration {
+
+  @Bean
+  public LogSink logSink(
+      PipelineOptions pipelineOptions,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry
+  ) throws IOException {
+    PipelineOptions.Sink sink = pipelineOptions.getSink();
+    LogSink writer = switch (sink.getType()) {
+      case LOGBACK -> new LogbackLogSink();
+      case FILE -> new JsonFileLogSink(new JsonLineEncoder(objectMapper), sink, meterRegistry);
+      case MAPPED -> new MappedSegmentLogSink(new JsonLineEncoder(objectMapper), sink,
+          meterRegistry);
+    };
+    LogSink logSink = new TimedLogSink(writer, sink.getType().name().toLowerCase(),
+        meterRegistry);
+
+    PipelineOptions.RingBuffer ringBuffer = pipelineOptions.getRingBuffer();
+    return ringBuffer.isEnabled()
+        ? new RingBufferLogSink(logSink, ringBuffer, meterRegistry)
+        : logSink;
+  }
+}
@@ -0,0 +1,36 @@
+package com.log.generator.controller;
+
+import com.log.generator.model.DatasetSpec;
+import com.log.generator.service.DatasetService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streams on-demand datasets as NDJSON, pulled from the generator as the client reads them.
+ */
+@RestController
+@RequestMapping("/api/logs")
+public class DatasetController {
+
+  private final DatasetService datasetService;
+
+  public DatasetController(DatasetService datasetService) {
+    this.datasetService = datasetService;
+  }
+
+  @PostMapping(value = "/dataset", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<String> dataset(@RequestBody DatasetSpec spec) {
+    try {
+      return datasetService.generate(spec);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+    }
+  }
+}
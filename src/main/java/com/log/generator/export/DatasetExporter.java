@@ -0,0 +1,337 @@
+package com.log.generator.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.log.generator.model.ExportFormat;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.provider.MarkovGenerationProvider;
+import com.log.generator.sink.JsonLineEncoder;
+import com.log.generator.utils.Timeline;
+import com.log.generator.utils.Weighted;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline bulk export, run with the {@code export} profile. The requested line count is split
+ * into fixed shards that a fork/join pool generates in parallel from the Markov models, without
+ * any Ollama call. Each shard has its own random source split from the seed, so the output
+ * depends on the seed, shard count and training data only, never on the pool size. The
+ * application exits once the shards and {@code _manifest.json} are written.
+ */
+@Slf4j
+@Component
+@Profile("export")
+public class DatasetExporter implements ApplicationRunner {
+
+  private static final String LOG_PREFIX = "[EXPORT]:";
+  private static final String MANIFEST = "_manifest.json";
+  private static final int BUFFER_SIZE = 256 * 1024;
+
+  private final MarkovGenerationProvider markov;
+  private final ObjectMapper objectMapper;
+  private final JsonLineEncoder encoder;
+  private final JsonFactory columnFactory;
+  private final GeneratorOptions generatorOptions;
+  private final ConfigurableApplicationContext context;
+
+  public DatasetExporter(
+      MarkovGenerationProvider markov,
+      ObjectMapper objectMapper,
+      GeneratorOptions generatorOptions,
+      ConfigurableApplicationContext context
+  ) {
+    this.markov = markov;
+    this.objectMapper = objectMapper;
+    this.encoder = new JsonLineEncoder(objectMapper);
+    this.columnFactory = objectMapper.getFactory().copy()
+        .setRootValueSeparator(null)
+        .setCodec(objectMapper);
+    this.generatorOptions = generatorOptions;
+    this.context = context;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws IOException {
+    GeneratorOptions.Export options = generatorOptions.getExport();
+    validate(options);
+    Path directory = Path.of(options.getOutputDir());
+    if (Files.isDirectory(directory)) {
+      try (Stream<Path> existing = Files.list(directory)) {
+        if (existing.findAny().isPresent()) {
+          throw new IllegalStateException("Export directory is not empty: " + directory);
+        }
+      }
+    }
+    Files.createDirectories(directory);
+
+    markov.train();
+    if (!markov.isReady()) {
+      throw new IllegalStateException("Export needs Markov training data, none found in "
+          + generatorOptions.getMarkov().getTrainingFile());
+    }
+
+    Long configuredSeed = options.getSeed() != null
+        ? options.getSeed()
+        : generatorOptions.getSeed();
+    long seed = configuredSeed != null
+        ? configuredSeed
+        : ThreadLocalRandom.current().nextLong();
+    Instant to = options.getTo() != null
+        ? options.getTo()
+        : Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    Instant from = options.getFrom() != null ? options.getFrom() : to.minus(Duration.ofDays(1));
+    int parallelism = options.getParallelism() > 0
+        ? options.getParallelism()
+        : Runtime.getRuntime().availableProcessors();
+
+    Weighted<LogScenario> scenarios = scenarioWeights(options);
+    Weighted<LogLevel> levels = Weighted.of(LogLevel.values(), options.getLevels(),
+        LogLevel::getProbability);
+    Export export = new Export(options, directory, scenarios, levels,
+        untrainedKeys(scenarios, levels),
+        Timeline.of(from, to, options.getCount()),
+        shardRandoms(seed, options.getShards()),
+        new Shard[options.getShards()]);
+
+    log.info("{} Export started count={} shards={} parallelism={} format={} seed={} from={} to={}"
+            + " dir={}", LOG_PREFIX, options.getCount(), options.getShards(), parallelism,
+        options.getFormat(), seed, from, to, directory.toAbsolutePath());
+    long start = System.nanoTime();
+    try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+      pool.invoke(new ShardTask(export, 0, options.getShards()));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    long durationMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+    writeManifest(export, seed, from, to);
+    long skipped = 0;
+    long bytes = 0;
+    for (Shard shard : export.shards()) {
+      skipped += shard.skipped();
+      bytes += shard.bytes();
+    }
+    log.info("{} Export completed lines={} skipped={} bytes={} duration_ms={} lines_per_s={}",
+        LOG_PREFIX, options.getCount() - skipped, skipped, bytes, durationMs,
+        (options.getCount() - skipped) * 1000 / durationMs);
+
+    System.exit(SpringApplication.exit(context));
+  }
+
+  private Shard writeShard(Export export, int shard) throws IOException {
+    GeneratorOptions.Export options = export.options();
+    long first = options.getCount() * shard / options.getShards();
+    long last = options.getCount() * (shard + 1) / options.getShards();
+    SplittableRandom random = export.randoms()[shard];
+    String name = String.format("part-%05d", shard);
+    Path path = options.getFormat() == ExportFormat.COLUMNAR_GZIP
+        ? export.directory().resolve(name)
+        : export.directory().resolve(name + NdjsonShardWriter.EXTENSION);
+
+    long skipped = 0;
+    try (ShardWriter writer = options.getFormat() == ExportFormat.COLUMNAR_GZIP
+        ? new ColumnarShardWriter(path, columnFactory, BUFFER_SIZE)
+        : new NdjsonShardWriter(path, encoder, BUFFER_SIZE)) {
+      for (long index = first; index < last; index++) {
+        LogScenario scenario = export.scenarios().sample(random);
+        LogLevel level = export.levels().sample(random);
+        StructuredLogResponse entry = markov.sample(scenario, level, random);
+        if (entry == null) {
+          skipped++;
+          continue;
+        }
+        writer.write(entry, scenario, export.timeline().at(index, random), random);
+      }
+    }
+    return new Shard(path.getFileName().toString(), last - first - skipped, skipped, size(path));
+  }
+
+  private void writeManifest(Export export, long seed, Instant from, Instant to)
+      throws IOException {
+    GeneratorOptions.Export options = export.options();
+    ObjectNode manifest = objectMapper.createObjectNode()
+        .put("format", options.getFormat().name())
+        .put("count", options.getCount())
+        .put("seed", seed)
+        .put("from", from.toString())
+        .put("to", to.toString());
+    ArrayNode untrained = manifest.putArray("untrained");
+    export.untrained().forEach(untrained::add);
+    if (options.getFormat() == ExportFormat.COLUMNAR_GZIP) {
+      ArrayNode columns = manifest.putArray("columns");
+      ColumnarShardWriter.COLUMNS.forEach(column -> columns.add(column
+          + ColumnarShardWriter.EXTENSION));
+    }
+    ArrayNode parts = manifest.putArray("parts");
+    for (Shard shard : export.shards()) {
+      parts.addObject()
+          .put("path", shard.path())
+          .put("lines", shard.lines())
+          .put("skipped", shard.skipped())
+          .put("bytes", shard.bytes());
+    }
+    objectMapper.writerWithDefaultPrettyPrinter()
+        .writeValue(export.directory().resolve(MANIFEST).toFile(), manifest);
+  }
+
+  /**
+   * The configured scenario mix restricted to scenarios the models can sample, so every shard
+   * gets its full line count.
+   */
+  private Weighted<LogScenario> scenarioWeights(GeneratorOptions.Export options) {
+    Weighted<LogScenario> configured = Weighted.of(LogScenario.values(), options.getScenarios(),
+        _ -> 1.0);
+    Map<LogScenario, Double> weights = new EnumMap<>(LogScenario.class);
+    List<LogScenario> untrained = new ArrayList<>();
+    for (int i = 0; i < configured.values().length; i++) {
+      LogScenario scenario = configured.values()[i];
+      double weight = configured.weights()[i];
+      if (weight > 0 && !markov.isTrained(scenario)) {
+        untrained.add(scenario);
+        weight = 0;
+      }
+      weights.put(scenario, weight);
+    }
+    if (!untrained.isEmpty()) {
+      log.warn("{} No training data for scenarios={}, left out of the export", LOG_PREFIX,
+          untrained);
+    }
+    Weighted.validate("trained scenarios", weights);
+    return Weighted.of(LogScenario.values(), weights, _ -> 0.0);
+  }
+
+  /**
+   * Scenario/level pairs that can be drawn but have no model. Their lines are skipped, not
+   * taken from another level, so the exported levels keep the configured mix.
+   */
+  private List<String> untrainedKeys(Weighted<LogScenario> scenarios, Weighted<LogLevel> levels) {
+    List<String> untrained = new ArrayList<>();
+    for (int i = 0; i < scenarios.values().length; i++) {
+      for (int j = 0; j < levels.values().length; j++) {
+        if (scenarios.weights()[i] > 0 && levels.weights()[j] > 0
+            && !markov.isTrained(scenarios.values()[i], levels.values()[j])) {
+          untrained.add(scenarios.values()[i] + "/" + levels.values()[j]);
+        }
+      }
+    }
+    if (!untrained.isEmpty()) {
+      log.warn("{} No training data for keys={}, their lines are skipped", LOG_PREFIX, untrained);
+    }
+    return untrained;
+  }
+
+  private static SplittableRandom[] shardRandoms(long seed, int shards) {
+    SplittableRandom root = new SplittableRandom(seed);
+    SplittableRandom[] randoms = new SplittableRandom[shards];
+    for (int i = 0; i < shards; i++) {
+      randoms[i] = root.split();
+    }
+    return randoms;
+  }
+
+  private static long size(Path path) throws IOException {
+    if (!Files.isDirectory(path)) {
+      return Files.size(path);
+    }
+    try (Stream<Path> files = Files.list(path)) {
+      long total = 0;
+      for (Path file : files.toList()) {
+        total += Files.size(file);
+      }
+      return total;
+    }
+  }
+
+  private static void validate(GeneratorOptions.Export options) {
+    if (options.getCount() < 1) {
+      throw new IllegalArgumentException("generator.export.count must be positive");
+    }
+    if (options.getShards() < 1 || options.getShards() > options.getCount()) {
+      throw new IllegalArgumentException("generator.export.shards must be between 1 and count");
+    }
+    if ((options.getFrom() == null) != (options.getTo() == null)) {
+      throw new IllegalArgumentException("from and to must be given together");
+    }
+    if (options.getFrom() != null && !options.getFrom().isBefore(options.getTo())) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    Weighted.validate("scenarios", options.getScenarios());
+    Weighted.validate("levels", options.getLevels());
+  }
+
+  private record Export(
+      GeneratorOptions.Export options,
+      Path directory,
+      Weighted<LogScenario> scenarios,
+      Weighted<LogLevel> levels,
+      List<String> untrained,
+      Timeline timeline,
+      SplittableRandom[] randoms,
+      Shard[] shards
+  ) {
+  }
+
+  private record Shard(String path, long lines, long skipped, long bytes) {
+  }
+
+  /**
+   * Splits the shard range in halves until a task owns a single shard, which it writes.
+   */
+  private final class ShardTask extends RecursiveAction {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // tasks only live inside the pool, never serialized
+    private final transient Export export;
+    private final int from;
+    private final int to;
+
+    private ShardTask(Export export, int from, int to) {
+      this.export = export;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        try {
+          export.shards()[from] = writeShard(export, from);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new ShardTask(export, from, middle), new ShardTask(export, middle, to));
+    }
+  }
+}
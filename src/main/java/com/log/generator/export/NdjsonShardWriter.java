@@ -0,0 +1,42 @@
+package com.log.generator.export;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.sink.JsonLineEncoder;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.random.RandomGenerator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One gzipped NDJSON file per shard, in the synthetic log line layout.
+ */
+final class NdjsonShardWriter implements ShardWriter {
+
+  static final String EXTENSION = ".ndjson.gz";
+
+  private final JsonLineEncoder encoder;
+  private final OutputStream out;
+
+  NdjsonShardWriter(Path file, JsonLineEncoder encoder, int bufferSize) throws IOException {
+    this.encoder = encoder;
+    this.out = new BufferedOutputStream(
+        new GZIPOutputStream(Files.newOutputStream(file), bufferSize), bufferSize);
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario, Instant timestamp,
+      RandomGenerator random) throws IOException {
+    JsonLineEncoder.Line line = encoder.encode(entry, scenario, timestamp, random);
+    out.write(line.bytes(), 0, line.size());
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+}
@@ -0,0 +1,18 @@
+package com.log.generator.export;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.random.RandomGenerator;
+
+/**
+ * Writes the lines of one export shard. Generated ids are drawn from the shard's random source in
+ * the same order by every format, so a seed produces the same data whatever the layout.
+ */
+interface ShardWriter extends Closeable {
+
+  void write(StructuredLogResponse entry, LogScenario scenario, Instant timestamp,
+      RandomGenerator random) throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.log.generator.markov;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Second-order Markov chain over {@link MarkovToken}s. Each state is the pair of previous token
+ * ids packed into a long, and maps to parallel arrays of successor ids and cumulative counts that
+ * are sampled with a binary search.
+ */
+public final class MarkovChain {
+
+  private static final int START = 0;
+  private static final int END = 1;
+
+  private final MarkovToken[] vocabulary;
+  private final Map<Long, Transitions> transitions;
+  private final int maxTokens;
+
+  private MarkovChain(MarkovToken[] vocabulary, Map<Long, Transitions> transitions,
+      int maxTokens) {
+    this.vocabulary = vocabulary;
+    this.transitions = transitions;
+    this.maxTokens = maxTokens;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int states() {
+    return transitions.size();
+  }
+
+  public String sample(RandomGenerator random) {
+    StringBuilder message = new StringBuilder(96);
+    int previous = START;
+    int current = START;
+    for (int i = 0; i < maxTokens; i++) {
+      Transitions next = transitions.get(state(previous, current));
+      if (next == null) {
+        break;
+      }
+      int token = next.sample(random);
+      if (token == END) {
+        break;
+      }
+      vocabulary[token].render(message, i == 0, random);
+      previous = current;
+      current = token;
+    }
+    return message.toString();
+  }
+
+  private static long state(int previous, int current) {
+    return ((long) previous << 32) | (current & 0xFFFFFFFFL);
+  }
+
+  private record Transitions(int[] tokens, int[] cumulative) {
+
+    int sample(RandomGenerator random) {
+      int pick = random.nextInt(cumulative[cumulative.length - 1]);
+      int index = Arrays.binarySearch(cumulative, pick + 1);
+      return tokens[index >= 0 ? index : -index - 1];
+    }
+  }
+
+  public static final class Builder {
+
+    private final Map<MarkovToken, Integer> ids = new HashMap<>();
+    private final List<MarkovToken> vocabulary = new ArrayList<>();
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private int longest;
+
+    private Builder() {
+      vocabulary.add(null);
+      vocabulary.add(null);
+    }
+
+    public Builder add(List<MarkovToken> tokens) {
+      if (tokens.isEmpty()) {
+        return this;
+      }
+      int previous = START;
+      int current = START;
+      for (MarkovToken token : tokens) {
+        int id = ids.computeIfAbsent(token, key -> {
+          vocabulary.add(key);
+          return vocabulary.size() - 1;
+        });
+        increment(previous, current, id);
+        previous = current;
+        current = id;
+      }
+      increment(previous, current, END);
+      longest = Math.max(longest, tokens.size());
+      return this;
+    }
+
+    public boolean isEmpty() {
+      return counts.isEmpty();
+    }
+
+    private void increment(int previous, int current, int next) {
+      counts.computeIfAbsent(state(previous, current), _ -> new HashMap<>())
+          .merge(next, 1, Integer::sum);
+    }
+
+    public MarkovChain build() {
+      Map<Long, Transitions> transitions = HashMap.newHashMap(counts.size());
+      counts.forEach((state, successors) -> {
+        int[] tokens = new int[successors.size()];
+        int[] cumulative = new int[successors.size()];
+        int i = 0;
+        int total = 0;
+        for (Map.Entry<Integer, Integer> successor : successors.entrySet()) {
+          total += successor.getValue();
+          tokens[i] = successor.getKey();
+          cumulative[i++] = total;
+        }
+        transitions.put(state, new Transitions(tokens, cumulative));
+      });
+      return new MarkovChain(vocabulary.toArray(MarkovToken[]::new), transitions, longest * 2);
+    }
+  }
+}
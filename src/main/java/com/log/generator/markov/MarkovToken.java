@@ -0,0 +1,76 @@
+package com.log.generator.markov;
+
+import com.log.generator.template.Slot;
+import com.log.generator.template.TemplateCompiler;
+import com.log.generator.template.TextTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * A word or a variable slot of a message, with whether whitespace precedes it. Slots come from
+ * {@link TemplateCompiler}, so ids, addresses and numbers are resampled instead of memorised.
+ */
+public record MarkovToken(String word, Slot slot, boolean spaceBefore) {
+
+  public static List<MarkovToken> tokenize(String message) {
+    TextTemplate template = TemplateCompiler.compile(message);
+    List<MarkovToken> tokens = new ArrayList<>();
+    boolean space = false;
+    for (int i = 0; i < template.literals().length; i++) {
+      space = addWords(tokens, template.literals()[i], space);
+      if (i < template.slots().length) {
+        tokens.add(new MarkovToken(null, normalize(template.slots()[i]), space));
+        space = false;
+      }
+    }
+    return tokens;
+  }
+
+  // coarse samples let "74 rows" and "12 rows" share a state
+  private static Slot normalize(Slot slot) {
+    return switch (slot.type()) {
+      case DURATION, NUMBER -> new Slot(slot.type(), leadingDigit(slot.sample()), slot.suffix());
+      case HTTP_CODE -> new Slot(slot.type(), slot.sample() / 100 * 100, slot.suffix());
+      default -> slot;
+    };
+  }
+
+  private static long leadingDigit(long value) {
+    long scale = 1;
+    while (value >= 10) {
+      value /= 10;
+      scale *= 10;
+    }
+    return value * scale;
+  }
+
+  private static boolean addWords(List<MarkovToken> tokens, String literal, boolean space) {
+    int start = -1;
+    for (int i = 0; i <= literal.length(); i++) {
+      boolean boundary = i == literal.length() || Character.isWhitespace(literal.charAt(i));
+      if (!boundary && start < 0) {
+        start = i;
+      } else if (boundary && start >= 0) {
+        tokens.add(new MarkovToken(literal.substring(start, i), null, space));
+        start = -1;
+        space = false;
+      }
+      if (boundary && i < literal.length()) {
+        space = true;
+      }
+    }
+    return space;
+  }
+
+  void render(StringBuilder target, boolean first, RandomGenerator random) {
+    if (spaceBefore && !first) {
+      target.append(' ');
+    }
+    if (slot != null) {
+      slot.render(target, random);
+    } else {
+      target.append(word);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package com.log.generator.model;
+
+public enum BalancerStrategy {
+    LEAST_OUTSTANDING,
+    EWMA_LATENCY
+}
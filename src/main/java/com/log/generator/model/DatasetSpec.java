@@ -0,0 +1,19 @@
+package com.log.generator.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * What an on-demand dataset should contain. Unset mixes fall back to every scenario equally and
+ * to the {@link LogLevel} probabilities; without a time range lines carry the time they were
+ * generated.
+ */
+public record DatasetSpec(
+    long count,
+    Map<LogScenario, Double> scenarios,
+    Map<LogLevel, Double> levels,
+    Instant from,
+    Instant to,
+    Long seed
+) {
+}
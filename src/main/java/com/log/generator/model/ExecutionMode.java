@@ -0,0 +1,6 @@
+package com.log.generator.model;
+
+public enum ExecutionMode {
+    REACTOR,
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,6 @@
+package com.log.generator.model;
+
+public enum ExportFormat {
+    NDJSON_GZIP,
+    COLUMNAR_GZIP
+}
@@ -0,0 +1,4 @@
+package com.log.generator.model;
+
+public record GeneratedEntry(LogScenario scenario, StructuredLogResponse response) {
+}
@@ -0,0 +1,7 @@
+package com.log.generator.model;
+
+public enum GenerationMode {
+    LLM,
+    TEMPLATE,
+    MARKOV
+}
@@ -0,0 +1,12 @@
+package com.log.generator.model;
+
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+public record GenerationRequest(
+    LogScenario scenario,
+    LogLevel level,
+    Map<String, Object> contextData,
+    RandomGenerator random
+) {
+}
@@ -0,0 +1,6 @@
+package com.log.generator.model;
+
+public enum OverflowPolicy {
+    BLOCK,
+    DROP
+}
@@ -6,12 +6,15 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class StructuredLogResponse {
 
   @JsonProperty("message")
@@ -56,4 +59,42 @@ public class StructuredLogResponse {
   @JsonProperty(value = "stack_trace", required = false)
   private String stackTrace;
 
+  // set for trace lines; random per line otherwise
+  @JsonProperty(value = "transaction_id", required = false)
+  private String transactionId;
+
+  @JsonProperty(value = "correlation_id", required = false)
+  private String correlationId;
+
+  @JsonProperty(value = "span_id", required = false)
+  private String spanId;
+
+  @JsonProperty(value = "parent_span_id", required = false)
+  private String parentSpanId;
+
+  /**
+   * Independent copy, metadata included. Later stages stamp levels, ids and spans onto a line, so
+   * an instance that is handed out more than once is copied first.
+   */
+  public StructuredLogResponse copy() {
+    return toBuilder().metadata(metadata != null ? copyMap(metadata) : null).build();
+  }
+
+  private static Map<String, Object> copyMap(Map<?, ?> source) {
+    Map<String, Object> copy = new LinkedHashMap<>(source.size());
+    source.forEach((key, value) -> copy.put(String.valueOf(key), copyValue(value)));
+    return copy;
+  }
+
+  private static Object copyValue(Object value) {
+    if (value instanceof Map<?, ?> map) {
+      return copyMap(map);
+    }
+    if (value instanceof List<?> list) {
+      List<Object> copy = new ArrayList<>(list.size());
+      list.forEach(item -> copy.add(copyValue(item)));
+      return copy;
+    }
+    return value;
+  }
 }
@@ -0,0 +1,8 @@
+package com.log.generator.model;
+
+public enum WaitStrategyType {
+    BLOCKING,
+    SLEEPING,
+    YIELDING,
+    BUSY_SPIN
+}
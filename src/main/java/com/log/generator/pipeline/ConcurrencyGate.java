@@ -0,0 +1,93 @@
+package com.log.generator.pipeline;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking semaphore for Monos from independent callers: at most {@code limit} run at once,
+ * later ones wait in arrival order and one arriving while {@code maxWaiting} already wait
+ * completes empty. Waits are recorded on {@code waits}. Releases are drained in a loop by one
+ * thread at a time, so units that finish while starting do not recurse into the next one.
+ */
+public final class ConcurrencyGate {
+
+  private final int limit;
+  private final int maxWaiting;
+  private final Timer waits;
+  private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int running;
+  private int releases;
+  private boolean draining;
+
+  public ConcurrencyGate(int limit, int maxWaiting, Timer waits) {
+    this.limit = Math.max(1, limit);
+    this.maxWaiting = Math.max(0, maxWaiting);
+    this.waits = waits;
+  }
+
+  public <T> Mono<T> run(Mono<T> unit) {
+    return Mono.create(sink -> {
+      long queued = System.nanoTime();
+      Disposable.Swap subscription = Disposables.swap();
+      sink.onCancel(subscription);
+      Runnable start = () -> {
+        waits.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+        subscription.replace(unit.doFinally(_ -> release())
+            .subscribe(sink::success, sink::error, sink::success));
+      };
+
+      synchronized (this) {
+        if (running < limit) {
+          running++;
+        } else if (waiting.size() < maxWaiting) {
+          waiting.add(start);
+          subscription.replace(() -> withdraw(start));
+          return;
+        } else {
+          sink.success();
+          return;
+        }
+      }
+      start.run();
+    });
+  }
+
+  public synchronized int waiting() {
+    return waiting.size();
+  }
+
+  private synchronized void withdraw(Runnable start) {
+    waiting.remove(start);
+  }
+
+  private void release() {
+    synchronized (this) {
+      releases++;
+      if (draining) {
+        return;
+      }
+      draining = true;
+    }
+    while (true) {
+      Runnable next;
+      synchronized (this) {
+        if (releases == 0) {
+          draining = false;
+          return;
+        }
+        releases--;
+        next = waiting.poll();
+        if (next == null) {
+          running--;
+          continue;
+        }
+      }
+      next.run();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/mix}: reads the base scenario/level mix as pair probabilities, replaces it and
+ * resets it to {@code generator.mix}. Actuator bodies hold flat values, so the weights are
+ * {@code KEY=weight} lists: {@code scenarios} and {@code levels} as {@code API_REQUEST=4,...},
+ * {@code levelsByScenario} as {@code DATABASE_OPERATION.ERROR=1,...}. A missing list means the
+ * default.
+ */
+@Component
+@Endpoint(id = "mix")
+public class MixEndpoint {
+
+  private final TrafficShaper trafficShaper;
+
+  public MixEndpoint(TrafficShaper trafficShaper) {
+    this.trafficShaper = trafficShaper;
+  }
+
+  @ReadOperation
+  public Map<LogScenario, Map<LogLevel, Double>> mix() {
+    return trafficShaper.baseMix();
+  }
+
+  @WriteOperation
+  public Map<LogScenario, Map<LogLevel, Double>> update(
+      @Nullable String scenarios,
+      @Nullable String levels,
+      @Nullable String levelsByScenario
+  ) {
+    try {
+      Map<LogScenario, Map<LogLevel, Double>> byScenario = new EnumMap<>(LogScenario.class);
+      parse(levelsByScenario).forEach((key, weight) -> {
+        int dot = key.indexOf('.');
+        if (dot < 0) {
+          throw new IllegalArgumentException("levelsByScenario keys are SCENARIO.LEVEL: " + key);
+        }
+        byScenario.computeIfAbsent(LogScenario.valueOf(key.substring(0, dot)),
+                _ -> new EnumMap<>(LogLevel.class))
+            .put(LogLevel.valueOf(key.substring(dot + 1)), weight);
+      });
+      Map<LogScenario, Double> scenarioWeights = new EnumMap<>(LogScenario.class);
+      parse(scenarios).forEach((key, weight) -> scenarioWeights.put(LogScenario.valueOf(key),
+          weight));
+      Map<LogLevel, Double> levelWeights = new EnumMap<>(LogLevel.class);
+      parse(levels).forEach((key, weight) -> levelWeights.put(LogLevel.valueOf(key), weight));
+      trafficShaper.setBaseMix(scenarioWeights, levelWeights, byScenario);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+    }
+    return trafficShaper.baseMix();
+  }
+
+  @DeleteOperation
+  public Map<LogScenario, Map<LogLevel, Double>> reset() {
+    trafficShaper.resetBaseMix();
+    return trafficShaper.baseMix();
+  }
+
+  private static Map<String, Double> parse(String weights) {
+    Map<String, Double> parsed = new LinkedHashMap<>();
+    if (weights == null || weights.isBlank()) {
+      return parsed;
+    }
+    for (String entry : weights.split(",")) {
+      int equals = entry.indexOf('=');
+      if (equals < 0) {
+        throw new IllegalArgumentException("Expected KEY=weight, got: " + entry.trim());
+      }
+      parsed.put(entry.substring(0, equals).trim().toUpperCase(Locale.ROOT),
+          Double.parseDouble(entry.substring(equals + 1).trim()));
+    }
+    return parsed;
+  }
+}
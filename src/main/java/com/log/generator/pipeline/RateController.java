@@ -0,0 +1,150 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.service.OllamaEndpointPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket for the target line rate combined with an AIMD limit on in-flight generations.
+ * The limit grows by roughly one per round trip while latency stays under target and halves on
+ * failures or slow calls. It applies in proportion to the Ollama nodes taking calls, and drops to
+ * the minimum while none is. The backlog is the lines the target rate has called for since start
+ * that were not dispatched yet, which unlike the capped bucket keeps growing while generation
+ * falls behind.
+ */
+@Slf4j
+@Component
+public class RateController {
+
+  private static final String LOG_PREFIX = "[PIPELINE-RATE]:";
+
+  private final PipelineOptions.RateControl options;
+  private final int maxConcurrency;
+  private final OllamaEndpointPool endpointPool;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder completedLines = new LongAdder();
+
+  private volatile double targetRate;
+  private volatile double concurrencyLimit;
+  private volatile double actualRate;
+
+  private double tokens;
+  private double owed;
+  private long lastRefill = System.nanoTime();
+  private long lastRateSample = System.nanoTime();
+  private long lastCompleted;
+
+  public RateController(
+      PipelineOptions pipelineOptions,
+      OllamaEndpointPool endpointPool,
+      MeterRegistry meterRegistry
+  ) {
+    this.options = pipelineOptions.getRateControl();
+    this.maxConcurrency = pipelineOptions.maxConcurrentUnits();
+    this.endpointPool = endpointPool;
+    this.targetRate = options.getTargetLinesPerSecond();
+    this.concurrencyLimit = options.getMinConcurrency();
+
+    Gauge.builder("pipeline.rate.target", this, RateController::getTargetRate)
+        .description("Target lines per second").register(meterRegistry);
+    Gauge.builder("pipeline.rate.actual", this, RateController::getActualRate)
+        .description("Measured lines per second").register(meterRegistry);
+    Gauge.builder("pipeline.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+    Gauge.builder("pipeline.concurrency.limit", this, RateController::getConcurrencyLimit)
+        .register(meterRegistry);
+    Gauge.builder("pipeline.backlog", this, RateController::getBacklog)
+        .description("Lines due at the target rate and not yet dispatched")
+        .baseUnit("lines").register(meterRegistry);
+  }
+
+  public synchronized void refill() {
+    long now = System.nanoTime();
+    double capacity = Math.max(1.0, targetRate * options.getBurst().toNanos() / 1e9);
+    double due = targetRate * (now - lastRefill) / 1e9;
+    tokens = Math.min(capacity, tokens + due);
+    owed += due;
+    lastRefill = now;
+
+    if (now - lastRateSample >= 1_000_000_000L) {
+      long completed = completedLines.sum();
+      actualRate = (completed - lastCompleted) * 1e9 / (now - lastRateSample);
+      lastCompleted = completed;
+      lastRateSample = now;
+    }
+  }
+
+  public synchronized boolean tryAcquire(int lines) {
+    if (tokens < 1.0 || inFlight.get() >= effectiveLimit()) {
+      return false;
+    }
+    tokens -= lines;
+    owed = Math.max(0.0, owed - lines);
+    inFlight.incrementAndGet();
+    return true;
+  }
+
+  public void onSuccess(long latencyNanos, long lines) {
+    inFlight.decrementAndGet();
+    completedLines.add(lines);
+
+    if (latencyNanos > options.getLatencyTarget().toNanos()) {
+      decrease();
+    } else {
+      synchronized (this) {
+        concurrencyLimit = Math.min(maxConcurrency,
+            concurrencyLimit + 1.0 / Math.max(1.0, concurrencyLimit));
+      }
+    }
+  }
+
+  public void onFailure() {
+    inFlight.decrementAndGet();
+    decrease();
+  }
+
+  public void setTargetRate(double linesPerSecond) {
+    this.targetRate = Math.max(0.0, linesPerSecond);
+  }
+
+  public double getTargetRate() {
+    return targetRate;
+  }
+
+  public double getActualRate() {
+    return actualRate;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public double getConcurrencyLimit() {
+    return effectiveLimit();
+  }
+
+  public synchronized double getBacklog() {
+    return Math.floor(owed);
+  }
+
+  private double effectiveLimit() {
+    double healthy = endpointPool.healthyShare();
+    return healthy > 0
+        ? Math.max(options.getMinConcurrency(), Math.floor(concurrencyLimit * healthy))
+        : options.getMinConcurrency();
+  }
+
+  private synchronized void decrease() {
+    double previous = concurrencyLimit;
+    concurrencyLimit = Math.max(options.getMinConcurrency(), concurrencyLimit / 2);
+    if (previous != concurrencyLimit) {
+      log.debug("{} Concurrency limit decreased from={} to={}", LOG_PREFIX, previous,
+          concurrencyLimit);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.OverflowPolicy;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.sink.LogSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded ring of pre-allocated, mutable event slots between generation and the output sink.
+ * Producers and consumers claim positions with a CAS and hand slots over through a per-slot
+ * sequence number, so the ring itself never allocates or locks. Each event is written by exactly
+ * one consumer thread.
+ */
+@Slf4j
+public class RingBufferLogSink implements LogSink, AutoCloseable {
+
+  private static final String LOG_PREFIX = "[PIPELINE-RING]:";
+  private static final String CONSUMER_THREAD = "SYN-LOG-RING-";
+
+  private final LogSink delegate;
+  private final LogEvent[] slots;
+  private final int mask;
+  private final OverflowPolicy overflowPolicy;
+  private final WaitStrategy producerWait;
+  private final WaitStrategy consumerWait;
+  private final List<Thread> consumers;
+
+  private final AtomicLong enqueuePosition = new AtomicLong();
+  private final AtomicLong dequeuePosition = new AtomicLong();
+
+  private final Counter dropped;
+  private final Timer latency;
+
+  private volatile boolean running = true;
+
+  public RingBufferLogSink(LogSink delegate, PipelineOptions.RingBuffer options,
+      MeterRegistry meterRegistry) {
+    int capacity = Integer.highestOneBit(Math.max(2, options.getSize() - 1)) << 1;
+    this.delegate = delegate;
+    this.slots = new LogEvent[capacity];
+    this.mask = capacity - 1;
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new LogEvent(i);
+    }
+    this.overflowPolicy = options.getOverflowPolicy();
+    this.producerWait = WaitStrategy.of(options.getWaitStrategy());
+    this.consumerWait = WaitStrategy.of(options.getWaitStrategy());
+
+    Gauge.builder("pipeline.ring.depth", this, RingBufferLogSink::depth)
+        .description("Events waiting for a consumer").register(meterRegistry);
+    Gauge.builder("pipeline.ring.capacity", slots, array -> array.length)
+        .register(meterRegistry);
+    this.dropped = Counter.builder("pipeline.ring.dropped")
+        .description("Events dropped because the ring was full").register(meterRegistry);
+    this.latency = Timer.builder("pipeline.ring.latency")
+        .description("Time from publish to completed sink write")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+
+    int consumerCount = Math.max(1, options.getConsumers());
+    this.consumers = new ArrayList<>(consumerCount);
+    for (int i = 0; i < consumerCount; i++) {
+      consumers.add(Thread.ofPlatform().name(CONSUMER_THREAD + i).daemon().start(this::consume));
+    }
+    log.info("{} Ring buffer started capacity={} consumers={} wait_strategy={} overflow={}",
+        LOG_PREFIX, capacity, consumerCount, options.getWaitStrategy(), overflowPolicy);
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario) {
+    int attempt = 0;
+    while (true) {
+      long position = enqueuePosition.get();
+      LogEvent event = slots[(int) position & mask];
+      long sequence = event.sequence.get();
+      if (sequence == position) {
+        if (enqueuePosition.compareAndSet(position, position + 1)) {
+          event.entry = entry;
+          event.scenario = scenario;
+          event.publishedNanos = System.nanoTime();
+          event.sequence.set(position + 1);
+          consumerWait.signal();
+          return;
+        }
+      } else if (sequence < position) {
+        if (overflowPolicy == OverflowPolicy.DROP || !running) {
+          dropped.increment();
+          return;
+        }
+        producerWait.idle(attempt++);
+      }
+    }
+  }
+
+  private void consume() {
+    int attempt = 0;
+    while (true) {
+      long position = dequeuePosition.get();
+      LogEvent event = slots[(int) position & mask];
+      long sequence = event.sequence.get();
+      if (sequence == position + 1) {
+        if (dequeuePosition.compareAndSet(position, position + 1)) {
+          attempt = 0;
+          process(event);
+          event.sequence.set(position + slots.length);
+          producerWait.signal();
+        }
+      } else if (sequence < position + 1) {
+        if (!running) {
+          return;
+        }
+        consumerWait.idle(attempt++);
+      }
+    }
+  }
+
+  private void process(LogEvent event) {
+    try {
+      delegate.write(event.entry, event.scenario);
+      latency.record(System.nanoTime() - event.publishedNanos, TimeUnit.NANOSECONDS);
+    } catch (Exception ex) {
+      log.error("{} Sink write failed", LOG_PREFIX, ex);
+    } finally {
+      event.entry = null;
+      event.scenario = null;
+    }
+  }
+
+  private double depth() {
+    return Math.max(0, enqueuePosition.get() - dequeuePosition.get());
+  }
+
+  @Override
+  public void close() throws Exception {
+    running = false;
+    consumerWait.signal();
+    for (Thread consumer : consumers) {
+      consumer.join();
+    }
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private static final class LogEvent {
+
+    private final AtomicLong sequence;
+    private StructuredLogResponse entry;
+    private LogScenario scenario;
+    private long publishedNanos;
+
+    private LogEvent(long sequence) {
+      this.sequence = new AtomicLong(sequence);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.utils.AliasTable;
+import com.log.generator.utils.Weighted;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Joint scenario x level distribution, one alias table over every scenario/level cell, so a
+ * slot costs a single random draw and two array reads. A scenario's levels follow its own
+ * weights when given and the shared level weights otherwise. Immutable: a new mix is published
+ * by swapping the reference.
+ */
+final class SlotMix {
+
+  private static final LogScenario[] SCENARIOS = LogScenario.values();
+  private static final LogLevel[] LEVELS = LogLevel.values();
+  private static final List<Map.Entry<LogScenario, LogLevel>> SLOTS = slots();
+
+  private final double[] probabilities;
+  private final AliasTable table;
+
+  private SlotMix(double[] probabilities) {
+    this.probabilities = probabilities;
+    this.table = AliasTable.of(probabilities);
+  }
+
+  /**
+   * Empty or missing maps fall back to all scenarios equally and the {@link LogLevel}
+   * probabilities.
+   */
+  static SlotMix of(Map<LogScenario, Double> scenarios, Map<LogLevel, Double> levels,
+      Map<LogScenario, Map<LogLevel, Double>> levelsByScenario) {
+    validate("", scenarios, levels, levelsByScenario);
+    Weighted<LogScenario> scenarioWeights = Weighted.of(SCENARIOS, scenarios, _ -> 1.0);
+    Weighted<LogLevel> levelWeights = Weighted.of(LEVELS, levels, LogLevel::getProbability);
+    double scenarioTotal = total(scenarioWeights.weights());
+
+    double[] probabilities = new double[SLOTS.size()];
+    for (int s = 0; s < SCENARIOS.length; s++) {
+      Map<LogLevel, Double> own = levelsByScenario != null
+          ? levelsByScenario.get(SCENARIOS[s])
+          : null;
+      double[] scenarioLevels = own != null && !own.isEmpty()
+          ? Weighted.of(LEVELS, own, _ -> 0.0).weights()
+          : levelWeights.weights();
+      double levelTotal = total(scenarioLevels);
+      for (int l = 0; l < LEVELS.length; l++) {
+        probabilities[s * LEVELS.length + l] = scenarioWeights.weights()[s] / scenarioTotal
+            * scenarioLevels[l] / levelTotal;
+      }
+    }
+    return new SlotMix(probabilities);
+  }
+
+  static void validate(String name, Map<LogScenario, Double> scenarios,
+      Map<LogLevel, Double> levels, Map<LogScenario, Map<LogLevel, Double>> levelsByScenario) {
+    Weighted.validate(name + "scenarios", scenarios);
+    Weighted.validate(name + "levels", levels);
+    if (levelsByScenario != null) {
+      levelsByScenario.forEach((scenario, weights) ->
+          Weighted.validate(name + scenario + " levels", weights));
+    }
+  }
+
+  Map.Entry<LogScenario, LogLevel> sample(RandomGenerator random) {
+    return SLOTS.get(table.sample(random));
+  }
+
+  /**
+   * Probability of each scenario/level cell, for reporting.
+   */
+  Map<LogScenario, Map<LogLevel, Double>> probabilities() {
+    Map<LogScenario, Map<LogLevel, Double>> result = new EnumMap<>(LogScenario.class);
+    for (int s = 0; s < SCENARIOS.length; s++) {
+      Map<LogLevel, Double> levels = new EnumMap<>(LogLevel.class);
+      for (int l = 0; l < LEVELS.length; l++) {
+        levels.put(LEVELS[l], probabilities[s * LEVELS.length + l]);
+      }
+      result.put(SCENARIOS[s], levels);
+    }
+    return result;
+  }
+
+  private static double total(double[] weights) {
+    double total = 0;
+    for (double weight : weights) {
+      total += weight;
+    }
+    return total;
+  }
+
+  private static List<Map.Entry<LogScenario, LogLevel>> slots() {
+    List<Map.Entry<LogScenario, LogLevel>> slots = new ArrayList<>(
+        SCENARIOS.length * LEVELS.length);
+    for (LogScenario scenario : SCENARIOS) {
+      for (LogLevel level : LEVELS) {
+        slots.add(Map.entry(scenario, level));
+      }
+    }
+    return List.copyOf(slots);
+  }
+}
@@ -0,0 +1,249 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time-varying traffic profile: the pipeline target rate follows a diurnal curve, Poisson
+ * distributed bursts and scripted incidents, and incidents shift the scenario/level mix. Profile
+ * time runs {@code speed} times faster than the wall clock, and bursts are drawn from the seed,
+ * so a profile replays the same way. When disabled the rate is left alone and lines use the
+ * base mix from {@code generator.mix}, which {@link MixEndpoint} can replace at runtime.
+ */
+@Slf4j
+@Component
+public class TrafficShaper {
+
+  private static final String LOG_PREFIX = "[PIPELINE-TRAFFIC]:";
+  private static final double NANOS_PER_HOUR = 3600e9;
+
+  private final PipelineOptions.Traffic options;
+  private final double baseRate;
+  private final RateController rateController;
+  private final GeneratorOptions.Mix configuredMix;
+  private final List<Incident> incidents;
+  private final long seed;
+  private final long startNanos = System.nanoTime();
+
+  private volatile State state;
+  private volatile SlotMix baseMix;
+
+  private SplittableRandom burstRandom;
+  private long cycle;
+  private long nextBurst;
+  private long burstEnd;
+
+  public TrafficShaper(
+      GeneratorOptions generatorOptions,
+      PipelineOptions pipelineOptions,
+      RateController rateController,
+      MeterRegistry meterRegistry
+  ) {
+    this.options = pipelineOptions.getTraffic();
+    this.baseRate = pipelineOptions.getRateControl().getTargetLinesPerSecond();
+    this.rateController = rateController;
+    this.configuredMix = generatorOptions.getMix();
+    this.baseMix = SlotMix.of(configuredMix.getScenarios(), configuredMix.getLevels(),
+        configuredMix.getLevelsByScenario());
+    this.incidents = options.isEnabled() ? compile(options) : List.of();
+    Long configuredSeed = options.getSeed() != null
+        ? options.getSeed()
+        : generatorOptions.getSeed();
+    this.seed = configuredSeed != null
+        ? configuredSeed
+        : ThreadLocalRandom.current().nextLong();
+    this.state = new State(1.0, null);
+    resetBursts();
+
+    Gauge.builder("pipeline.traffic.multiplier", this, shaper -> shaper.state.multiplier())
+        .description("Traffic profile factor applied to the target rate")
+        .register(meterRegistry);
+    Gauge.builder("pipeline.traffic.incident", this,
+            shaper -> shaper.state.incident() != null ? 1 : 0)
+        .description("Whether a scripted incident is active").register(meterRegistry);
+
+    if (options.isEnabled()) {
+      log.info("{} Traffic profile enabled base_rate={} speed={} seed={} amplitude={} "
+              + "bursts_per_hour={} incidents={}", LOG_PREFIX, baseRate, options.getSpeed(), seed,
+          options.getDiurnal().getAmplitude(), options.getBursts().getPerHour(),
+          incidents.size());
+      if (!pipelineOptions.getRateControl().isEnabled()) {
+        log.warn("{} pipeline.rate-control is disabled, only the incident mix applies",
+            LOG_PREFIX);
+      }
+    }
+  }
+
+  /**
+   * Scenario and level for the next line, from the active incident's mix for its share of the
+   * lines and from the default mix otherwise.
+   */
+  public Map.Entry<LogScenario, LogLevel> nextSlot(RandomGenerator random) {
+    Incident incident = state.incident();
+    SlotMix mix = incident != null && random.nextDouble() < incident.share()
+        ? incident.mix()
+        : baseMix;
+    return mix.sample(random);
+  }
+
+  public Map<LogScenario, Map<LogLevel, Double>> baseMix() {
+    return baseMix.probabilities();
+  }
+
+  /**
+   * Replaces the base mix; lines already sampling keep the previous table, later ones see the
+   * new one.
+   */
+  public void setBaseMix(Map<LogScenario, Double> scenarios, Map<LogLevel, Double> levels,
+      Map<LogScenario, Map<LogLevel, Double>> levelsByScenario) {
+    baseMix = SlotMix.of(scenarios, levels, levelsByScenario);
+    log.info("{} Base mix replaced scenarios={} levels={} levels_by_scenario={}", LOG_PREFIX,
+        scenarios, levels, levelsByScenario);
+  }
+
+  public void resetBaseMix() {
+    baseMix = SlotMix.of(configuredMix.getScenarios(), configuredMix.getLevels(),
+        configuredMix.getLevelsByScenario());
+    log.info("{} Base mix reset to generator.mix", LOG_PREFIX);
+  }
+
+  @Scheduled(fixedDelayString = "${pipeline.traffic.update-interval:1s}")
+  public void update() {
+    if (options.isEnabled()) {
+      apply(profileNanos(System.nanoTime()));
+    }
+  }
+
+  private synchronized void apply(long profileNanos) {
+    long length = options.getLength().toNanos();
+    long time = profileNanos;
+    if (length > 0) {
+      long currentCycle = profileNanos / length;
+      time = profileNanos % length;
+      if (currentCycle != cycle) {
+        cycle = currentCycle;
+        resetBursts();
+      }
+    }
+
+    double multiplier = diurnal(time) * burst(time);
+    Incident active = null;
+    for (Incident incident : incidents) {
+      if (time >= incident.start() && time < incident.end()) {
+        multiplier *= incident.rateMultiplier();
+        active = active == null ? incident : active;
+      }
+    }
+
+    State previous = state;
+    state = new State(multiplier, active);
+    rateController.setTargetRate(baseRate * multiplier);
+    if (active != previous.incident()) {
+      if (previous.incident() != null) {
+        log.info("{} Incident ended name={} at={}", LOG_PREFIX, previous.incident().name(),
+            Duration.ofNanos(time));
+      }
+      if (active != null) {
+        log.info("{} Incident started name={} at={} multiplier={} share={}", LOG_PREFIX,
+            active.name(), Duration.ofNanos(time), active.rateMultiplier(), active.share());
+      }
+    }
+  }
+
+  private long profileNanos(long now) {
+    return options.getStartOffset().toNanos()
+        + (long) ((now - startNanos) * options.getSpeed());
+  }
+
+  /**
+   * {@code 1 + amplitude * cos}, peaking at {@code peak} into each period.
+   */
+  private double diurnal(long time) {
+    PipelineOptions.Traffic.Diurnal diurnal = options.getDiurnal();
+    if (diurnal.getAmplitude() <= 0) {
+      return 1.0;
+    }
+    double phase = (double) (time - diurnal.getPeak().toNanos()) / diurnal.getPeriod().toNanos();
+    return 1.0 + diurnal.getAmplitude() * Math.cos(2 * Math.PI * phase);
+  }
+
+  /**
+   * Advances the burst schedule to {@code time}; bursts start with exponential gaps and last
+   * {@code duration}.
+   */
+  private double burst(long time) {
+    PipelineOptions.Traffic.Bursts bursts = options.getBursts();
+    if (bursts.getPerHour() <= 0) {
+      return 1.0;
+    }
+    while (time >= nextBurst) {
+      burstEnd = nextBurst + bursts.getDuration().toNanos();
+      nextBurst += exponentialGap();
+    }
+    return time < burstEnd ? bursts.getMultiplier() : 1.0;
+  }
+
+  private void resetBursts() {
+    burstRandom = new SplittableRandom(seed);
+    burstEnd = 0;
+    nextBurst = options.getBursts().getPerHour() > 0 ? exponentialGap() : Long.MAX_VALUE;
+  }
+
+  private long exponentialGap() {
+    double mean = NANOS_PER_HOUR / options.getBursts().getPerHour();
+    return Math.max(1, (long) (-mean * Math.log(1.0 - burstRandom.nextDouble())));
+  }
+
+  private static List<Incident> compile(PipelineOptions.Traffic options) {
+    if (options.getSpeed() <= 0) {
+      throw new IllegalArgumentException("pipeline.traffic.speed must be positive");
+    }
+    double amplitude = options.getDiurnal().getAmplitude();
+    if (amplitude < 0 || amplitude > 1) {
+      throw new IllegalArgumentException("pipeline.traffic.diurnal.amplitude must be in [0, 1]");
+    }
+
+    List<Incident> incidents = new ArrayList<>();
+    for (PipelineOptions.Traffic.Incident incident : options.getIncidents()) {
+      String name = incident.getName() != null
+          ? incident.getName()
+          : "incident-" + incidents.size();
+      SlotMix.validate(name + " ", incident.getScenarios(), incident.getLevels(), null);
+      double multiplier = incident.getRateMultiplier();
+      // by default the extra traffic is the incident's own: 5x the rate is 80% incident lines
+      double share = incident.getShare() != null
+          ? incident.getShare()
+          : multiplier > 1 ? 1 - 1 / multiplier : 1.0;
+      if (multiplier < 0 || share < 0 || share > 1) {
+        throw new IllegalArgumentException(name + " needs a non-negative rate-multiplier and a "
+            + "share in [0, 1]");
+      }
+      SlotMix mix = SlotMix.of(incident.getScenarios(), incident.getLevels(), null);
+      long start = incident.getStart().toNanos();
+      incidents.add(new Incident(name, start, start + incident.getDuration().toNanos(),
+          multiplier, share, mix));
+    }
+    return List.copyOf(incidents);
+  }
+
+  private record Incident(String name, long start, long end, double rateMultiplier,
+                          double share, SlotMix mix) {
+  }
+
+  private record State(double multiplier, Incident incident) {
+  }
+}
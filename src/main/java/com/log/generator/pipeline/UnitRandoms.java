@@ -0,0 +1,53 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.utils.SeedSequence;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Random source for each generation unit. With {@code generator.seed} set, unit {@code n} gets
+ * stream {@code n} of the run's {@link SeedSequence}, numbered in dispatch order, so its slot,
+ * context, message and ids are the same in every run whatever thread generates it. Without a
+ * seed every unit uses {@link ThreadLocalRandom}.
+ */
+@Slf4j
+@Component
+public class UnitRandoms {
+
+  private static final String LOG_PREFIX = "[PIPELINE-SEED]:";
+
+  private final SeedSequence seeds;
+  private final AtomicLong units = new AtomicLong();
+
+  public UnitRandoms(GeneratorOptions generatorOptions) {
+    Long seed = generatorOptions.getSeed();
+    this.seeds = seed != null ? new SeedSequence(seed) : null;
+    if (seeds != null) {
+      log.info("{} Seeded run seed={}", LOG_PREFIX, seed);
+    }
+  }
+
+  public boolean isSeeded() {
+    return seeds != null;
+  }
+
+  /**
+   * The next unit's random source; call from the dispatching thread so units are numbered in
+   * dispatch order.
+   */
+  public RandomGenerator next() {
+    return seeds != null ? seeds.stream(units.getAndIncrement()) : ThreadLocalRandom.current();
+  }
+
+  public RandomGenerator[] next(int count) {
+    RandomGenerator[] randoms = new RandomGenerator[count];
+    for (int i = 0; i < count; i++) {
+      randoms[i] = next();
+    }
+    return randoms;
+  }
+}
@@ -0,0 +1,101 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs generation units on virtual threads, one thread per unit, with a semaphore bounding how
+ * many are past the gate at once. Threads waiting for a permit are parked and cost no carrier;
+ * the wait from submission to permit is timed as {@code pipeline.queue.wait}.
+ */
+@Slf4j
+@Component
+public class VirtualThreadRunner {
+
+  private static final String LOG_PREFIX = "[PIPELINE-VT]:";
+  private static final String THREAD_PREFIX = "SYN-LOG-VT-";
+
+  private final ThreadFactory threadFactory;
+  private final ExecutorService executor;
+  private final Semaphore permits;
+  private final AtomicInteger active = new AtomicInteger();
+  private final Timer queueWait;
+
+  public VirtualThreadRunner(PipelineOptions pipelineOptions, MeterRegistry meterRegistry) {
+    int maxConcurrency = Math.max(1, pipelineOptions.getExecution().getMaxConcurrency());
+    this.threadFactory = Thread.ofVirtual().name(THREAD_PREFIX, 0).factory();
+    this.executor = Executors.newThreadPerTaskExecutor(threadFactory);
+    this.permits = new Semaphore(maxConcurrency);
+
+    Gauge.builder("pipeline.vt.active", active, AtomicInteger::get)
+        .description("Virtual threads holding a concurrency permit").register(meterRegistry);
+    Gauge.builder("pipeline.vt.waiting", permits, Semaphore::getQueueLength)
+        .description("Virtual threads waiting for a concurrency permit").register(meterRegistry);
+    this.queueWait = Timer.builder("pipeline.queue.wait")
+        .description("Time from dispatching a generation unit to starting it")
+        .tag("execution", "virtual_threads")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  public void submit(Runnable unit) {
+    long queued = System.nanoTime();
+    executor.execute(() -> runPermitted(unit, queued));
+  }
+
+  /**
+   * Starts {@code count} units, each given its index in the burst, in their own scope; the scope
+   * thread returns only when every unit has finished, so a burst never outlives its owner.
+   */
+  public void submitBurst(int count, IntConsumer unit) {
+    long queued = System.nanoTime();
+    executor.execute(() -> {
+      try (ExecutorService scope = Executors.newThreadPerTaskExecutor(threadFactory)) {
+        for (int i = 0; i < count; i++) {
+          int index = i;
+          scope.execute(() -> runPermitted(() -> unit.accept(index), queued));
+        }
+      }
+    });
+  }
+
+  public Thread startLoop(String name, Runnable loop) {
+    return Thread.ofVirtual().name(name).start(loop);
+  }
+
+  private void runPermitted(Runnable unit, long queued) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+    active.incrementAndGet();
+    try {
+      unit.run();
+    } catch (Exception ex) {
+      log.warn("{} Generation unit failed: {}", LOG_PREFIX, ex.toString());
+    } finally {
+      active.decrementAndGet();
+      permits.release();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
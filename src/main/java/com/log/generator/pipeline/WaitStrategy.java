@@ -0,0 +1,79 @@
+package com.log.generator.pipeline;
+
+import com.log.generator.model.WaitStrategyType;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * How ring buffer producers and consumers wait for a slot. {@link #idle(int)} is called with the
+ * number of consecutive failed attempts and {@link #signal()} after every publish or release.
+ */
+interface WaitStrategy {
+
+  void idle(int attempt);
+
+  default void signal() {
+  }
+
+  static WaitStrategy of(WaitStrategyType type) {
+    return switch (type) {
+      case BUSY_SPIN -> _ -> Thread.onSpinWait();
+      case YIELDING -> attempt -> {
+        if (attempt < 100) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+      };
+      case SLEEPING -> attempt -> {
+        if (attempt < 100) {
+          Thread.onSpinWait();
+        } else if (attempt < 200) {
+          Thread.yield();
+        } else {
+          LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+      };
+      case BLOCKING -> new Blocking();
+    };
+  }
+
+  final class Blocking implements WaitStrategy {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    @Override
+    public void idle(int attempt) {
+      waiters.incrementAndGet();
+      lock.lock();
+      try {
+        // bounded wait: a signal racing the increment above is picked up on the next attempt
+        available.awaitNanos(MAX_WAIT_NANOS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
+        lock.unlock();
+        waiters.decrementAndGet();
+      }
+    }
+
+    @Override
+    public void signal() {
+      if (waiters.get() > 0) {
+        lock.lock();
+        try {
+          available.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+}
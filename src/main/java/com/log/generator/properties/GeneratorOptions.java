@@ -0,0 +1,85 @@
+package com.log.generator.properties;
+
+import com.log.generator.model.ExportFormat;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "generator")
+public class GeneratorOptions {
+  private GenerationMode mode = GenerationMode.LLM;
+  private Long seed;
+  private Templates templates = new Templates();
+  private Prompt prompt = new Prompt();
+  private Markov markov = new Markov();
+  private Dataset dataset = new Dataset();
+  private Export export = new Export();
+  private Trace trace = new Trace();
+  private Mix mix = new Mix();
+
+  @Data
+  public static class Mix {
+    private Map<LogScenario, Double> scenarios = new EnumMap<>(LogScenario.class);
+    private Map<LogLevel, Double> levels = new EnumMap<>(LogLevel.class);
+    private Map<LogScenario, Map<LogLevel, Double>> levelsByScenario =
+        new EnumMap<>(LogScenario.class);
+  }
+
+  @Data
+  public static class Trace {
+    private boolean enabled;
+    private int sessions = 1_000_000;
+    private int requestsPerSession = 20;
+    private double cacheHitRatio = 0.8;
+    private double errorProbability = 0.05;
+  }
+
+  @Data
+  public static class Export {
+    private long count = 1_000_000;
+    private int shards = 16;
+    private int parallelism;
+    private String outputDir = "export";
+    private ExportFormat format = ExportFormat.NDJSON_GZIP;
+    private Long seed;
+    private Instant from;
+    private Instant to;
+    private Map<LogScenario, Double> scenarios = new EnumMap<>(LogScenario.class);
+    private Map<LogLevel, Double> levels = new EnumMap<>(LogLevel.class);
+  }
+
+  @Data
+  public static class Dataset {
+    private long maxCount = 10_000_000;
+    private int concurrency = 32;
+    private int chunkLines = 512;
+  }
+
+  @Data
+  public static class Markov {
+    private String trainingFile = "logs/corpus/synthetic.log";
+    private int maxTrainingLines = 200_000;
+    private int exemplarsPerKey = 16;
+    private boolean llmFallback = true;
+  }
+
+  @Data
+  public static class Prompt {
+    private boolean sharedPrefix;
+  }
+
+  @Data
+  public static class Templates {
+    private int poolSize = 32;
+    private int burstSize = 1000;
+    private int refreshBatch = 2;
+  }
+}
@@ -1,9 +1,13 @@
 package com.log.generator.properties;
 
+import com.log.generator.model.BalancerStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -13,11 +17,61 @@ import java.util.HashMap;
 public class OllamaOptions {
   private boolean enabled;
   private String baseUrl;
+  private List<String> endpoints = new ArrayList<>();
+  private Balancer balancer = new Balancer();
+  private Connection connection = new Connection();
   private String model;
   private int timeoutSeconds;
+  private boolean streaming;
   private Map<String, String> formats = new HashMap<>();
+  private Cache cache = new Cache();
+  private Batch batch = new Batch();
 
   public String getFormat(String formatType) {
     return formats.get(formatType);
   }
+
+  public List<String> resolveEndpoints() {
+    return endpoints.isEmpty() ? List.of(baseUrl) : endpoints;
+  }
+
+  @Data
+  public static class Connection {
+    private int maxConnections;
+    private int pendingAcquireMaxCount = 256;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private boolean compression = true;
+    private boolean h2c;
+  }
+
+  @Data
+  public static class Balancer {
+    private BalancerStrategy strategy = BalancerStrategy.LEAST_OUTSTANDING;
+    private String healthPath = "/";
+    private Duration healthTimeout = Duration.ofSeconds(2);
+    private int ejectAfterFailures = 3;
+  }
+
+  @Data
+  public static class Cache {
+    private boolean enabled;
+    private int maxEntries = 500;
+    private int variantsPerKey = 8;
+    private Duration ttl = Duration.ofMinutes(30);
+    private double reuseProbability = 0.8;
+    private String persistenceFile;
+  }
+
+  @Data
+  public static class Batch {
+    private boolean enabled;
+    private int minSize = 2;
+    private int maxSize = 16;
+    private int initialSize = 4;
+    private Duration targetLatency = Duration.ofSeconds(30);
+  }
 }
@@ -0,0 +1,116 @@
+package com.log.generator.properties;
+
+import com.log.generator.model.ExecutionMode;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.OverflowPolicy;
+import com.log.generator.model.SinkType;
+import com.log.generator.model.WaitStrategyType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "pipeline")
+public class PipelineOptions {
+  private RateControl rateControl = new RateControl();
+  private Execution execution = new Execution();
+  private RingBuffer ringBuffer = new RingBuffer();
+  private Sink sink = new Sink();
+  private Traffic traffic = new Traffic();
+
+  /**
+   * Bound on generation units in flight: the virtual-thread semaphore in {@code VIRTUAL_THREADS}
+   * mode, {@code rate-control.max-concurrency} otherwise.
+   */
+  public int maxConcurrentUnits() {
+    return execution.getMode() == ExecutionMode.VIRTUAL_THREADS
+        ? execution.getMaxConcurrency()
+        : rateControl.getMaxConcurrency();
+  }
+
+  @Data
+  public static class RateControl {
+    private boolean enabled = true;
+    private double targetLinesPerSecond = 2.0;
+    private Duration tick = Duration.ofMillis(10);
+    private Duration burst = Duration.ofSeconds(1);
+    private int minConcurrency = 1;
+    private int maxConcurrency = 8;
+    private Duration latencyTarget = Duration.ofSeconds(30);
+  }
+
+  @Data
+  public static class Execution {
+    private ExecutionMode mode = ExecutionMode.REACTOR;
+    private int maxConcurrency = 1024;
+  }
+
+  @Data
+  public static class RingBuffer {
+    private boolean enabled = true;
+    private int size = 8192;
+    private int consumers = 1;
+    private WaitStrategyType waitStrategy = WaitStrategyType.SLEEPING;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+  }
+
+  @Data
+  public static class Sink {
+    private SinkType type = SinkType.LOGBACK;
+    private String file = "logs/synthetic.log";
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+    private int maxHistory = 30;
+    private DataSize bufferSize = DataSize.ofKilobytes(256);
+    private int buffers = 8;
+    private Duration flushInterval = Duration.ofMillis(200);
+    private DataSize segmentSize = DataSize.ofMegabytes(128);
+    private boolean compress = true;
+    private int compressionThreads = 1;
+  }
+
+  @Data
+  public static class Traffic {
+    private boolean enabled;
+    private double speed = 1.0;
+    private Duration startOffset = Duration.ZERO;
+    private Duration length = Duration.ZERO;
+    private Duration updateInterval = Duration.ofSeconds(1);
+    private Long seed;
+    private Diurnal diurnal = new Diurnal();
+    private Bursts bursts = new Bursts();
+    private List<Incident> incidents = new ArrayList<>();
+
+    @Data
+    public static class Diurnal {
+      private double amplitude;
+      private Duration period = Duration.ofHours(24);
+      private Duration peak = Duration.ofHours(14);
+    }
+
+    @Data
+    public static class Bursts {
+      private double perHour;
+      private double multiplier = 3.0;
+      private Duration duration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Incident {
+      private String name;
+      private Duration start = Duration.ZERO;
+      private Duration duration = Duration.ofMinutes(5);
+      private double rateMultiplier = 1.0;
+      private Double share;
+      private Map<LogScenario, Double> scenarios = new EnumMap<>(LogScenario.class);
+      private Map<LogLevel, Double> levels = new EnumMap<>(LogLevel.class);
+    }
+  }
+}
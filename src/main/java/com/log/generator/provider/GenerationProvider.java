@@ -0,0 +1,35 @@
+package com.log.generator.provider;
+
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.StructuredLogResponse;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of structured log entries for one {@link GenerationMode}. An empty result means the
+ * provider has nothing for the request yet and the caller may fall back to the LLM.
+ */
+public interface GenerationProvider {
+
+  GenerationMode mode();
+
+  Mono<StructuredLogResponse> generate(GenerationRequest request);
+
+  /** Whether {@link GenerationRequest#contextData()} is read; local providers skip building it. */
+  default boolean usesContext() {
+    return false;
+  }
+
+  default boolean isReady() {
+    return true;
+  }
+
+  default Flux<GeneratedEntry> generateBatch(List<GenerationRequest> requests) {
+    return Flux.fromIterable(requests)
+        .concatMap(request -> generate(request)
+            .map(response -> new GeneratedEntry(request.scenario(), response)));
+  }
+}
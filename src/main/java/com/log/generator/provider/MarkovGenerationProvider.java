@@ -0,0 +1,344 @@
+package com.log.generator.provider;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.log.generator.markov.MarkovChain;
+import com.log.generator.markov.MarkovToken;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.sink.SyntheticLoggers;
+import com.log.generator.template.LogTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Samples messages from per scenario and level Markov chains trained on a corpus of previously
+ * generated output, a log file and its rolled archives. The remaining fields are rendered from a
+ * small reservoir of real entries for the same key. In {@code MARKOV} mode the corpus must not be
+ * the sink's own file, or retraining would learn from the models' own samples.
+ */
+@Slf4j
+@Component
+public class MarkovGenerationProvider implements GenerationProvider {
+
+  private static final String LOG_PREFIX = "[SVC-MARKOV]:";
+  private static final String STACK_TRACE_SEPARATOR = " Stack trace: ";
+  private static final LogScenario[] SCENARIOS = LogScenario.values();
+  private static final LogLevel[] LEVELS = LogLevel.values();
+
+  private final ObjectMapper objectMapper;
+  private final ObjectReader entryReader;
+  private final GeneratorOptions generatorOptions;
+  private final PipelineOptions pipelineOptions;
+
+  private volatile MessageModel[] models;
+
+  public MarkovGenerationProvider(ObjectMapper objectMapper, GeneratorOptions generatorOptions,
+      PipelineOptions pipelineOptions) {
+    this.objectMapper = objectMapper;
+    // logback output carries @timestamp, logger_name and correlation_id on top of the entry
+    this.entryReader = objectMapper.readerFor(StructuredLogResponse.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.generatorOptions = generatorOptions;
+    this.pipelineOptions = pipelineOptions;
+  }
+
+  @Override
+  public GenerationMode mode() {
+    return GenerationMode.MARKOV;
+  }
+
+  @Override
+  public boolean isReady() {
+    return models != null;
+  }
+
+  /**
+   * Whether any level of {@code scenario} had training data.
+   */
+  public boolean isTrained(LogScenario scenario) {
+    MessageModel[] current = models;
+    if (current == null) {
+      return false;
+    }
+    for (LogLevel level : LEVELS) {
+      if (current[index(scenario, level)] != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether {@code scenario} at {@code level} had training data.
+   */
+  public boolean isTrained(LogScenario scenario, LogLevel level) {
+    MessageModel[] current = models;
+    return current != null && current[index(scenario, level)] != null;
+  }
+
+  @Override
+  public Mono<StructuredLogResponse> generate(GenerationRequest request) {
+    return Mono.justOrEmpty(sample(request.scenario(), request.level(), request.random()));
+  }
+
+  /**
+   * Samples an entry with the given random source, so a seeded source reproduces the same
+   * entries from the same training data. Null until trained or when the scenario has no data
+   * at that level; another level's model would label its messages with the wrong level.
+   */
+  public StructuredLogResponse sample(LogScenario scenario, LogLevel level,
+      RandomGenerator random) {
+    MessageModel[] current = models;
+    if (current == null) {
+      return null;
+    }
+    MessageModel model = current[index(scenario, level)];
+    if (model == null) {
+      return null;
+    }
+
+    StructuredLogResponse entry = model.exemplars()[random.nextInt(model.exemplars().length)]
+        .render(random);
+    entry.setMessage(model.chain().sample(random));
+    return entry;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void trainOnStartup() {
+    if (generatorOptions.getMode() == GenerationMode.MARKOV) {
+      Mono.fromRunnable(this::trainOnCorpus).subscribeOn(Schedulers.boundedElastic()).subscribe();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${generator.markov.retrain-interval:600000}",
+      initialDelayString = "${generator.markov.retrain-interval:600000}")
+  public void retrain() {
+    if (generatorOptions.getMode() == GenerationMode.MARKOV) {
+      trainOnCorpus();
+    }
+  }
+
+  private void trainOnCorpus() {
+    Path corpus = Path.of(generatorOptions.getMarkov().getTrainingFile());
+    if (isSinkOutput(corpus)) {
+      log.warn("{} Not training on the sink's own output file={}, point"
+          + " generator.markov.training-file at a separate corpus", LOG_PREFIX, corpus);
+      return;
+    }
+    train();
+  }
+
+  public synchronized void train() {
+    GeneratorOptions.Markov options = generatorOptions.getMarkov();
+    Trainer trainer = new Trainer(options.getExemplarsPerKey());
+    long start = System.nanoTime();
+
+    for (Path file : trainingFiles(Path.of(options.getTrainingFile()))) {
+      if (trainer.lines >= options.getMaxTrainingLines()) {
+        break;
+      }
+      try (BufferedReader reader = open(file)) {
+        String line;
+        while (trainer.lines < options.getMaxTrainingLines()
+            && (line = reader.readLine()) != null) {
+          trainer.accept(line);
+        }
+      } catch (IOException ex) {
+        log.warn("{} Skipping training file={}: {}", LOG_PREFIX, file, ex.toString());
+      }
+    }
+
+    MessageModel[] trained = trainer.build();
+    if (trained == null) {
+      log.warn("{} No training data found file={}", LOG_PREFIX, options.getTrainingFile());
+      return;
+    }
+    models = trained;
+    log.info("{} Markov models trained lines={} skipped={} keys={} duration_ms={}", LOG_PREFIX,
+        trainer.lines, trainer.skipped, trainer.keys(), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Whether {@code corpus} would read the sink file or its archives, which the pipeline writes
+   * while this provider generates.
+   */
+  private boolean isSinkOutput(Path corpus) {
+    Path sink = Path.of(pipelineOptions.getSink().getFile()).toAbsolutePath().normalize();
+    Path file = corpus.toAbsolutePath().normalize();
+    return Objects.equals(file.getParent(), sink.getParent())
+        && (stem(file).equals(stem(sink)) || file.getFileName().toString()
+        .startsWith(stem(sink) + "."));
+  }
+
+  private List<Path> trainingFiles(Path file) {
+    Path directory = file.toAbsolutePath().getParent();
+    String stem = stem(file);
+
+    List<Path> files = new ArrayList<>();
+    if (Files.isRegularFile(file)) {
+      files.add(file);
+    }
+    if (directory != null && Files.isDirectory(directory)) {
+      List<Path> archives = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, stem + ".*")) {
+        stream.forEach(archives::add);
+      } catch (IOException ex) {
+        log.warn("{} Failed to list archives directory={}: {}", LOG_PREFIX, directory,
+            ex.toString());
+      }
+      archives.sort(Comparator.comparing(MarkovGenerationProvider::lastModified).reversed());
+      for (Path archive : archives) {
+        if (!archive.getFileName().equals(file.getFileName())) {
+          files.add(archive);
+        }
+      }
+    }
+    return files;
+  }
+
+  private static String stem(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+
+  private static long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException _) {
+      return 0L;
+    }
+  }
+
+  private static BufferedReader open(Path file) throws IOException {
+    InputStream in = Files.newInputStream(file);
+    if (file.getFileName().toString().endsWith(".gz")) {
+      in = new GZIPInputStream(in, 64 * 1024);
+    }
+    return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+  }
+
+  private static int index(LogScenario scenario, LogLevel level) {
+    return scenario.ordinal() * LEVELS.length + level.ordinal();
+  }
+
+  private record MessageModel(MarkovChain chain, LogTemplate[] exemplars) {
+  }
+
+  private final class Trainer {
+
+    private final MarkovChain.Builder[] chains = new MarkovChain.Builder[
+        SCENARIOS.length * LEVELS.length];
+    private final List<List<LogTemplate>> exemplars = new ArrayList<>(chains.length);
+    private final int[] seen = new int[chains.length];
+    // fixed seed: the same training data always keeps the same exemplars
+    private final SplittableRandom reservoirRandom = new SplittableRandom(0);
+    private final int exemplarsPerKey;
+    private long lines;
+    private long skipped;
+
+    private Trainer(int exemplarsPerKey) {
+      this.exemplarsPerKey = Math.max(1, exemplarsPerKey);
+      for (int i = 0; i < chains.length; i++) {
+        chains[i] = MarkovChain.builder();
+        exemplars.add(new ArrayList<>(this.exemplarsPerKey));
+      }
+    }
+
+    private void accept(String line) {
+      lines++;
+      if (line.isEmpty() || line.charAt(0) != '{') {
+        skipped++;
+        return;
+      }
+      try {
+        JsonNode node = objectMapper.readTree(line);
+        Optional<LogScenario> scenario = SyntheticLoggers.scenario(node.path("logger_name")
+            .asText(null));
+        if (scenario.isEmpty() || !node.hasNonNull("message") || !node.hasNonNull("level")) {
+          skipped++;
+          return;
+        }
+
+        StructuredLogResponse entry = entryReader.readValue(node);
+        String message = entry.getMessage();
+        int separator = message.indexOf(STACK_TRACE_SEPARATOR);
+        if (separator >= 0) {
+          entry.setStackTrace(message.substring(separator + STACK_TRACE_SEPARATOR.length()));
+          message = message.substring(0, separator);
+          entry.setMessage(message);
+        }
+
+        int key = index(scenario.get(), entry.getLevel());
+        chains[key].add(MarkovToken.tokenize(message));
+        sample(key, entry);
+      } catch (IOException | IllegalArgumentException ex) {
+        skipped++;
+      }
+    }
+
+    // reservoir sampling keeps exemplars representative of the whole training window
+    private void sample(int key, StructuredLogResponse entry) {
+      List<LogTemplate> reservoir = exemplars.get(key);
+      int count = ++seen[key];
+      if (reservoir.size() < exemplarsPerKey) {
+        reservoir.add(LogTemplate.from(entry, entry.getLevel()));
+      } else {
+        int slot = reservoirRandom.nextInt(count);
+        if (slot < exemplarsPerKey) {
+          reservoir.set(slot, LogTemplate.from(entry, entry.getLevel()));
+        }
+      }
+    }
+
+    private int keys() {
+      int keys = 0;
+      for (MarkovChain.Builder chain : chains) {
+        keys += chain.isEmpty() ? 0 : 1;
+      }
+      return keys;
+    }
+
+    private MessageModel[] build() {
+      MessageModel[] built = new MessageModel[chains.length];
+      boolean any = false;
+      for (int i = 0; i < chains.length; i++) {
+        if (!chains[i].isEmpty()) {
+          built[i] = new MessageModel(chains[i].build(),
+              exemplars.get(i).toArray(LogTemplate[]::new));
+          any = true;
+        }
+      }
+      return any ? built : null;
+    }
+  }
+}
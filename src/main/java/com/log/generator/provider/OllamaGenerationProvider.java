@@ -0,0 +1,42 @@
+package com.log.generator.provider;
+
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.service.OllamaService;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class OllamaGenerationProvider implements GenerationProvider {
+
+  private final OllamaService ollamaService;
+
+  public OllamaGenerationProvider(OllamaService ollamaService) {
+    this.ollamaService = ollamaService;
+  }
+
+  @Override
+  public GenerationMode mode() {
+    return GenerationMode.LLM;
+  }
+
+  @Override
+  public Mono<StructuredLogResponse> generate(GenerationRequest request) {
+    return ollamaService.generateLogMessage(request.scenario(), request.level(),
+        request.contextData());
+  }
+
+  @Override
+  public boolean usesContext() {
+    return true;
+  }
+
+  @Override
+  public Flux<GeneratedEntry> generateBatch(List<GenerationRequest> requests) {
+    return ollamaService.generateLogBatch(requests);
+  }
+}
@@ -0,0 +1,38 @@
+package com.log.generator.provider;
+
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.service.TemplateService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+public class TemplateGenerationProvider implements GenerationProvider {
+
+  private final TemplateService templateService;
+
+  public TemplateGenerationProvider(TemplateService templateService) {
+    this.templateService = templateService;
+  }
+
+  @Override
+  public GenerationMode mode() {
+    return GenerationMode.TEMPLATE;
+  }
+
+  /**
+   * Empty when the scenario/level pool has no template yet, so the slot goes to the LLM instead
+   * of taking another level's wording, level and stack trace.
+   */
+  @Override
+  public Mono<StructuredLogResponse> generate(GenerationRequest request) {
+    return Mono.justOrEmpty(templateService.render(request.scenario(), request.level(),
+        request.random()));
+  }
+
+  @Override
+  public boolean isReady() {
+    return templateService.hasTemplates();
+  }
+}
@@ -0,0 +1,50 @@
+package com.log.generator.service;
+
+import com.log.generator.properties.OllamaOptions;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class AdaptiveBatchSizer {
+
+  private static final String LOG_PREFIX = "[SVC-BATCH]:";
+
+  private final OllamaOptions.Batch options;
+  private final AtomicInteger size;
+
+  public AdaptiveBatchSizer(OllamaOptions ollamaOptions) {
+    this.options = ollamaOptions.getBatch();
+    this.size = new AtomicInteger(clamp(options.getInitialSize()));
+  }
+
+  public int currentSize() {
+    return size.get();
+  }
+
+  public void onSuccess(int requested, Duration latency) {
+    long target = options.getTargetLatency().toMillis();
+    if (latency.toMillis() < target * 0.8) {
+      int grown = size.updateAndGet(current ->
+          requested >= current ? clamp(current + 1) : current);
+      logAdjustment(grown, latency);
+    } else if (latency.toMillis() > target) {
+      logAdjustment(size.updateAndGet(current -> clamp(current / 2)), latency);
+    }
+  }
+
+  public void onFailure() {
+    logAdjustment(size.updateAndGet(current -> clamp(current / 2)), null);
+  }
+
+  private void logAdjustment(int newSize, Duration latency) {
+    log.debug("{} Batch size adjusted size={} latency={}", LOG_PREFIX, newSize, latency);
+  }
+
+  private int clamp(int value) {
+    return Math.clamp(value, Math.max(1, options.getMinSize()),
+        Math.max(options.getMinSize(), options.getMaxSize()));
+  }
+}
@@ -0,0 +1,140 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.DatasetSpec;
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.sink.JsonLineEncoder;
+import com.log.generator.utils.SeedSequence;
+import com.log.generator.utils.Timeline;
+import com.log.generator.utils.Weighted;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Generates on-demand datasets as NDJSON chunks in the synthetic log line layout. The seed fixes
+ * the scenario/level sequence, the timestamps and the generated ids, and each line renders its
+ * message from its own stream of the seed, so Markov output is reproducible whatever the
+ * concurrency. Template and LLM content is as reproducible as the pools and the model.
+ */
+@Slf4j
+@Service
+public class DatasetService {
+
+  private static final String LOG_PREFIX = "[SVC-DATASET]:";
+
+  private final SyntheticLogGeneratorService logGenerator;
+  private final JsonLineEncoder encoder;
+  private final GeneratorOptions generatorOptions;
+
+  public DatasetService(
+      SyntheticLogGeneratorService logGenerator,
+      ObjectMapper objectMapper,
+      GeneratorOptions generatorOptions
+  ) {
+    this.logGenerator = logGenerator;
+    this.encoder = new JsonLineEncoder(objectMapper);
+    this.generatorOptions = generatorOptions;
+  }
+
+  /**
+   * Lines for {@code spec}, joined into chunks of newline-terminated lines. Generation is driven by demand,
+   * so a slow or cancelled consumer slows down or stops it.
+   */
+  public Flux<String> generate(DatasetSpec spec) {
+    GeneratorOptions.Dataset options = generatorOptions.getDataset();
+    validate(spec, options);
+
+    return Flux.defer(() -> {
+      long seed = spec.seed() != null ? spec.seed() : ThreadLocalRandom.current().nextLong();
+      SplittableRandom slotRandom = new SplittableRandom(seed);
+      SplittableRandom fieldRandom = slotRandom.split();
+      SeedSequence lineSeeds = new SeedSequence(seed);
+      Weighted<LogScenario> scenarios = Weighted.of(LogScenario.values(), spec.scenarios(),
+          _ -> 1.0);
+      Weighted<LogLevel> levels = Weighted.of(LogLevel.values(), spec.levels(),
+          LogLevel::getProbability);
+      Timeline timeline = Timeline.of(spec.from(), spec.to(), spec.count());
+      AtomicLong skipped = new AtomicLong();
+      long start = System.nanoTime();
+
+      log.info("{} Dataset started count={} seed={} from={} to={}", LOG_PREFIX, spec.count(),
+          seed, spec.from(), spec.to());
+
+      return Flux.range(0, (int) spec.count())
+          .map(index -> new Slot(index, scenarios.sample(slotRandom), levels.sample(slotRandom)))
+          .flatMapSequential(slot -> logGenerator.generateLogEntry(slot.scenario(), slot.level(),
+                      lineSeeds.stream(slot.index()))
+                  .map(entry -> new IndexedEntry(slot.index(),
+                      new GeneratedEntry(slot.scenario(), entry)))
+                  .onErrorResume(ex -> {
+                    skipped.incrementAndGet();
+                    log.debug("{} Skipping line index={}: {}", LOG_PREFIX, slot.index(),
+                        ex.getMessage());
+                    return Mono.<IndexedEntry>empty();
+                  }),
+              options.getConcurrency())
+          .map(entry -> encode(entry, timeline.at(entry.index(), fieldRandom), fieldRandom))
+          .buffer(options.getChunkLines())
+          .map(DatasetService::join)
+          .doOnComplete(() -> log.info("{} Dataset completed count={} skipped={} duration_ms={}",
+              LOG_PREFIX, spec.count(), skipped.get(), (System.nanoTime() - start) / 1_000_000))
+          .doOnCancel(() -> log.info("{} Dataset cancelled by consumer count={}", LOG_PREFIX,
+              spec.count()));
+    });
+  }
+
+  private String encode(IndexedEntry indexed, Instant timestamp, SplittableRandom random) {
+    try {
+      GeneratedEntry entry = indexed.entry();
+      JsonLineEncoder.Line line = encoder.encode(entry.response(), entry.scenario(), timestamp,
+          random);
+      return new String(line.bytes(), 0, line.size(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static String join(List<String> lines) {
+    int length = 0;
+    for (String line : lines) {
+      length += line.length();
+    }
+    StringBuilder chunk = new StringBuilder(length);
+    lines.forEach(chunk::append);
+    return chunk.toString();
+  }
+
+  private static void validate(DatasetSpec spec, GeneratorOptions.Dataset options) {
+    long maxCount = Math.min(options.getMaxCount(), Integer.MAX_VALUE);
+    if (spec.count() < 1 || spec.count() > maxCount) {
+      throw new IllegalArgumentException("count must be between 1 and " + maxCount);
+    }
+    if ((spec.from() == null) != (spec.to() == null)) {
+      throw new IllegalArgumentException("from and to must be given together");
+    }
+    if (spec.from() != null && !spec.from().isBefore(spec.to())) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+    Weighted.validate("scenarios", spec.scenarios());
+    Weighted.validate("levels", spec.levels());
+  }
+
+  private record Slot(int index, LogScenario scenario, LogLevel level) {
+  }
+
+  private record IndexedEntry(int index, GeneratedEntry entry) {
+  }
+}
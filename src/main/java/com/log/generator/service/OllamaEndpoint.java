@@ -0,0 +1,71 @@
+package com.log.generator.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@Getter
+public class OllamaEndpoint {
+
+  private static final double EWMA_ALPHA = 0.3;
+
+  private final String baseUrl;
+  private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  @Getter(AccessLevel.NONE)
+  private final AtomicInteger outstanding = new AtomicInteger();
+  @Getter(AccessLevel.NONE)
+  private final AtomicInteger probeFailures = new AtomicInteger();
+
+  private volatile double latencyEwmaMillis;
+  private volatile boolean healthy = true;
+
+  public OllamaEndpoint(String baseUrl, WebClient webClient, CircuitBreaker circuitBreaker) {
+    this.baseUrl = baseUrl;
+    this.webClient = webClient;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  public boolean isAvailable() {
+    return healthy && switch (circuitBreaker.getState()) {
+      case CLOSED, HALF_OPEN, DISABLED, METRICS_ONLY -> true;
+      default -> false;
+    };
+  }
+
+  public int getOutstandingRequests() {
+    return outstanding.get();
+  }
+
+  public double score() {
+    return (latencyEwmaMillis + 1.0) * (outstanding.get() + 1);
+  }
+
+  void acquire() {
+    outstanding.incrementAndGet();
+  }
+
+  void release() {
+    outstanding.decrementAndGet();
+  }
+
+  int probeFailed() {
+    return probeFailures.incrementAndGet();
+  }
+
+  void probeSucceeded() {
+    probeFailures.set(0);
+  }
+
+  void recordLatency(long nanos) {
+    double millis = nanos / 1_000_000.0;
+    double previous = latencyEwmaMillis;
+    latencyEwmaMillis = previous == 0.0 ? millis : previous + EWMA_ALPHA * (millis - previous);
+  }
+
+  void setHealthy(boolean healthy) {
+    this.healthy = healthy;
+  }
+}
@@ -0,0 +1,144 @@
+package com.log.generator.service;
+
+import com.log.generator.model.BalancerStrategy;
+import com.log.generator.properties.OllamaOptions;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+public class OllamaEndpointPool {
+
+  private static final String LOG_PREFIX = "[SVC-OLLAMA-POOL]:";
+
+  private final List<OllamaEndpoint> endpoints;
+  private final OllamaOptions.Balancer options;
+  private final AtomicInteger roundRobin = new AtomicInteger();
+
+  public OllamaEndpointPool(
+      List<OllamaEndpoint> endpoints,
+      OllamaOptions.Balancer options,
+      MeterRegistry meterRegistry
+  ) {
+    this.endpoints = List.copyOf(endpoints);
+    this.options = options;
+
+    for (OllamaEndpoint endpoint : this.endpoints) {
+      Gauge.builder("ollama.endpoint.outstanding", endpoint,
+              OllamaEndpoint::getOutstandingRequests)
+          .tag("endpoint", endpoint.getBaseUrl()).register(meterRegistry);
+      Gauge.builder("ollama.endpoint.latency.ewma", endpoint,
+              OllamaEndpoint::getLatencyEwmaMillis)
+          .tag("endpoint", endpoint.getBaseUrl()).baseUnit("milliseconds")
+          .register(meterRegistry);
+      Gauge.builder("ollama.endpoint.available", endpoint, e -> e.isAvailable() ? 1 : 0)
+          .tag("endpoint", endpoint.getBaseUrl()).register(meterRegistry);
+    }
+  }
+
+  public List<OllamaEndpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Share of nodes that are healthy with a closed breaker; a half-open node is still being
+   * tested and does not count.
+   */
+  public double healthyShare() {
+    int healthy = 0;
+    for (OllamaEndpoint endpoint : endpoints) {
+      if (endpoint.isHealthy() && switch (endpoint.getCircuitBreaker().getState()) {
+        case CLOSED, DISABLED, METRICS_ONLY -> true;
+        default -> false;
+      }) {
+        healthy++;
+      }
+    }
+    return (double) healthy / endpoints.size();
+  }
+
+  public <T> Mono<T> exchange(Function<OllamaEndpoint, Mono<T>> call) {
+    return Mono.defer(() -> {
+      OllamaEndpoint endpoint = select();
+      long start = System.nanoTime();
+      endpoint.acquire();
+
+      return call.apply(endpoint)
+          .transformDeferred(CircuitBreakerOperator.of(endpoint.getCircuitBreaker()))
+          .doOnSuccess(_ -> endpoint.recordLatency(System.nanoTime() - start))
+          .doFinally(_ -> endpoint.release());
+    });
+  }
+
+  OllamaEndpoint select() {
+    List<OllamaEndpoint> available = endpoints.stream()
+        .filter(OllamaEndpoint::isAvailable)
+        .toList();
+    if (available.isEmpty()) {
+      // every node is ejected or open; let the breaker of the next node reject the call
+      return endpoints.get(Math.floorMod(roundRobin.getAndIncrement(), endpoints.size()));
+    }
+    if (available.size() == 1) {
+      return available.getFirst();
+    }
+
+    Comparator<OllamaEndpoint> order = options.getStrategy() == BalancerStrategy.EWMA_LATENCY
+        ? Comparator.comparingDouble(OllamaEndpoint::score)
+        : Comparator.comparingInt(OllamaEndpoint::getOutstandingRequests)
+            .thenComparingDouble(OllamaEndpoint::getLatencyEwmaMillis);
+
+    // rotate the start so ties do not always land on the first configured node
+    int offset = Math.floorMod(roundRobin.getAndIncrement(), available.size());
+    OllamaEndpoint best = available.get(offset);
+    for (int i = 1; i < available.size(); i++) {
+      OllamaEndpoint candidate = available.get((offset + i) % available.size());
+      if (order.compare(candidate, best) < 0) {
+        best = candidate;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Health checks eject and re-admit nodes only; an open breaker half-opens on its own timer, so a
+   * node answering its health path cannot cut short the breaker's wait.
+   */
+  @Scheduled(fixedDelayString = "${ollama.balancer.health-interval:10000}")
+  public void probe() {
+    Flux.fromIterable(endpoints)
+        .flatMap(endpoint -> endpoint.getWebClient().get()
+            .uri(options.getHealthPath())
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(options.getHealthTimeout())
+            .doOnSuccess(_ -> onProbeSuccess(endpoint))
+            .doOnError(ex -> onProbeFailure(endpoint, ex))
+            .onErrorResume(_ -> Mono.empty()))
+        .subscribe();
+  }
+
+  private void onProbeSuccess(OllamaEndpoint endpoint) {
+    endpoint.probeSucceeded();
+    if (!endpoint.isHealthy()) {
+      endpoint.setHealthy(true);
+      log.info("{} Endpoint re-admitted endpoint={}", LOG_PREFIX, endpoint.getBaseUrl());
+    }
+  }
+
+  private void onProbeFailure(OllamaEndpoint endpoint, Throwable ex) {
+    int failures = endpoint.probeFailed();
+    if (endpoint.isHealthy() && failures >= options.getEjectAfterFailures()) {
+      endpoint.setHealthy(false);
+      log.warn("{} Endpoint ejected endpoint={} failures={} cause={}", LOG_PREFIX,
+          endpoint.getBaseUrl(), failures, ex.toString());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.log.generator.service;
+
+import com.log.generator.properties.OllamaOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage Ollama meters: prompt build, request latency and response parse time by request
+ * {@code type} ({@code single}, {@code batch}, {@code stream}), time to the first streamed token,
+ * and the token counts and server-side durations of each response, with the generation speed as
+ * {@code ollama.tokens.per.second}. Latency and token meters are tagged by model and endpoint so
+ * nodes of a pool can be compared.
+ */
+@Component
+public class OllamaMetrics {
+
+  public static final String SINGLE = "single";
+  public static final String BATCH = "batch";
+  public static final String STREAM = "stream";
+
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final MeterRegistry meterRegistry;
+  private final String model;
+
+  public OllamaMetrics(OllamaOptions ollamaOptions, MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.model = String.valueOf(ollamaOptions.getModel());
+  }
+
+  public <T> T timePrompt(String type, Supplier<T> build) {
+    return Timer.builder("ollama.prompt.build")
+        .description("Time to render the generation prompt")
+        .tag("type", type)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(build);
+  }
+
+  public <T> T timeParse(String type, Supplier<T> parse) {
+    return Timer.builder("ollama.response.parse")
+        .description("Time to decode, repair and bind a response body")
+        .tag("model", model)
+        .tag("type", type)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(parse);
+  }
+
+  /**
+   * From sending the request to the complete body, or to the closing brace of a streamed
+   * object.
+   */
+  public void recordRequest(String type, OllamaEndpoint endpoint, long nanos) {
+    Timer.builder("ollama.request.latency")
+        .description("Time from sending a generate request to its response")
+        .tag("model", model)
+        .tag("endpoint", endpoint.getBaseUrl())
+        .tag("type", type)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordFirstToken(OllamaEndpoint endpoint, long nanos) {
+    Timer.builder("ollama.stream.first.token")
+        .description("Time from sending a streamed request to its first token")
+        .tag("model", model)
+        .tag("endpoint", endpoint.getBaseUrl())
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordUsage(OllamaEndpoint endpoint, OllamaUsage usage) {
+    recordPhase(endpoint, "prompt", usage.promptTokens(), usage.promptNanos());
+    recordPhase(endpoint, "eval", usage.evalTokens(), usage.evalNanos());
+    if (usage.loadNanos() > 0) {
+      serverDuration(endpoint, "load").record(usage.loadNanos(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void recordPhase(OllamaEndpoint endpoint, String phase, long tokens, long nanos) {
+    if (tokens <= 0) {
+      return;
+    }
+    Counter.builder("ollama.tokens")
+        .description("Tokens processed, prompt or eval (generated)")
+        .tag("model", model)
+        .tag("endpoint", endpoint.getBaseUrl())
+        .tag("phase", phase)
+        .register(meterRegistry)
+        .increment(tokens);
+    if (nanos <= 0) {
+      return;
+    }
+    serverDuration(endpoint, phase).record(nanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("ollama.tokens.per.second")
+        .description("Tokens per second of a single response")
+        .tag("model", model)
+        .tag("endpoint", endpoint.getBaseUrl())
+        .tag("phase", phase)
+        .publishPercentileHistogram()
+        .minimumExpectedValue(1.0)
+        .maximumExpectedValue(100_000.0)
+        .register(meterRegistry)
+        .record(tokens * NANOS_PER_SECOND / nanos);
+  }
+
+  private Timer serverDuration(OllamaEndpoint endpoint, String phase) {
+    return Timer.builder("ollama.server.duration")
+        .description("Time Ollama reports for loading the model, the prompt or the eval")
+        .tag("model", model)
+        .tag("endpoint", endpoint.getBaseUrl())
+        .tag("phase", phase)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,142 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.OllamaOptions;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds {@code /api/generate} bodies from pre-serialized bytes. Everything but the prompt is
+ * serialized once per model/format/options combination; the prompt is escaped and spliced in
+ * between the cached head and tail. Keys include the current {@link OllamaOptions} values, so
+ * changed options produce a freshly built body. A run seed is passed on as the sampling seed.
+ */
+@Slf4j
+@Component
+public class OllamaRequestFactory {
+
+  private static final String LOG_PREFIX = "[SVC-OLLAMA-REQUEST]:";
+  private static final int NUM_PREDICT_PER_ENTRY = 300;
+  private static final int NUM_CTX = 3072;
+  private static final int MAX_TEMPLATES = 64;
+  private static final byte[] PROMPT_FIELD = ",\"prompt\":\"".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] TAIL = "\"}".getBytes(StandardCharsets.UTF_8);
+
+  private final ObjectMapper objectMapper;
+  private final OllamaOptions ollamaOptions;
+  private final GeneratorOptions generatorOptions;
+  private final Map<BodyKey, byte[]> heads = new ConcurrentHashMap<>();
+
+  public OllamaRequestFactory(
+      ObjectMapper objectMapper,
+      OllamaOptions ollamaOptions,
+      GeneratorOptions generatorOptions
+  ) {
+    this.objectMapper = objectMapper;
+    this.ollamaOptions = ollamaOptions;
+    this.generatorOptions = generatorOptions;
+  }
+
+  public byte[] single(String prompt) {
+    BodyKey key = new BodyKey(ollamaOptions.getModel(), "app-log",
+        ollamaOptions.getFormat("app-log"), ollamaOptions.isStreaming(),
+        NUM_PREDICT_PER_ENTRY, NUM_CTX, "}\n", generatorOptions.getSeed());
+    return splice(head(key), prompt);
+  }
+
+  public byte[] batch(String prompt, int entries) {
+    BodyKey key = new BodyKey(ollamaOptions.getModel(), "app-log-batch",
+        ollamaOptions.getFormat("app-log-batch"), false,
+        entries * NUM_PREDICT_PER_ENTRY, NUM_CTX + entries * NUM_PREDICT_PER_ENTRY, null,
+        generatorOptions.getSeed());
+    return splice(head(key), prompt);
+  }
+
+  private byte[] head(BodyKey key) {
+    byte[] head = heads.get(key);
+    if (head != null) {
+      return head;
+    }
+    if (heads.size() >= MAX_TEMPLATES) {
+      heads.clear();
+    }
+    return heads.computeIfAbsent(key, this::serializeHead);
+  }
+
+  private byte[] serializeHead(BodyKey key) {
+    Map<String, Object> request = new LinkedHashMap<>();
+    request.put("model", key.model());
+    request.put("stream", key.streaming());
+    request.put("format", outputSchema(key.formatType(), key.format()));
+    request.put("options", generationOptions(key.numPredict(), key.numCtx(), key.seed()));
+    if (key.stop() != null) {
+      request.put("stop", key.stop());
+    }
+
+    try {
+      byte[] serialized = objectMapper.writeValueAsBytes(request);
+      byte[] head = new byte[serialized.length - 1 + PROMPT_FIELD.length];
+      System.arraycopy(serialized, 0, head, 0, serialized.length - 1);
+      System.arraycopy(PROMPT_FIELD, 0, head, serialized.length - 1, PROMPT_FIELD.length);
+      log.info("{} Request body template built model={} format={} bytes={}", LOG_PREFIX,
+          key.model(), key.formatType(), head.length);
+      return head;
+    } catch (Exception ex) {
+      throw new IllegalStateException("Failed to serialize Ollama request body", ex);
+    }
+  }
+
+  private static byte[] splice(byte[] head, String prompt) {
+    byte[] escaped = JsonStringEncoder.getInstance().quoteAsUTF8(prompt);
+    byte[] body = new byte[head.length + escaped.length + TAIL.length];
+    System.arraycopy(head, 0, body, 0, head.length);
+    System.arraycopy(escaped, 0, body, head.length, escaped.length);
+    System.arraycopy(TAIL, 0, body, head.length + escaped.length, TAIL.length);
+    return body;
+  }
+
+  private static Map<String, Object> generationOptions(int numPredict, int numCtx, Long seed) {
+    // insertion ordered, so a given key always serializes to the same bytes
+    Map<String, Object> options = new LinkedHashMap<>();
+    options.put("temperature", 0.7);
+    options.put("num_predict", numPredict);
+    options.put("top_p", 0.9);
+    options.put("repeat_penalty", 1.1);
+    options.put("num_batch", 32);
+    options.put("num_gpu", -1);
+    options.put("num_ctx", numCtx);
+    if (seed != null) {
+      options.put("seed", seed);
+    }
+    return options;
+  }
+
+  private Map<String, Object> outputSchema(String formatType, String format) {
+    try {
+      return objectMapper.readValue(format, new TypeReference<>() {
+      });
+    } catch (Exception e) {
+      log.error("{} Failed to parse {} schema: {}", LOG_PREFIX, formatType, e.getMessage());
+      return null;
+    }
+  }
+
+  private record BodyKey(
+      String model,
+      String formatType,
+      String format,
+      boolean streaming,
+      int numPredict,
+      int numCtx,
+      String stop,
+      Long seed
+  ) {
+  }
+}
@@ -0,0 +1,260 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.OllamaOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OllamaResponseCache {
+
+  private static final String LOG_PREFIX = "[SVC-OLLAMA-CACHE]:";
+  // context fields that change what a realistic line says, bucketed to that meaning; the rest
+  // (ids, hosts, versions, exact amounts) only decorates the line and stays out of the key
+  private static final Map<String, Function<Object, String>> SEMANTIC_KEYS = Map.of(
+      "status_code", value -> leadingNumber(value) / 100 + "xx",
+      "severity", OllamaResponseCache::text,
+      "event_type", OllamaResponseCache::text,
+      "file_type", OllamaResponseCache::text,
+      "risk_score", value -> band(leadingNumber(value), 40, 75),
+      "login_attempts", value -> leadingNumber(value) > 1 ? "retry" : "first",
+      "query_time", value -> leadingNumber(value) >= 1000 ? "slow" : "fast",
+      "cpu_usage", value -> leadingNumber(value) >= 80 ? "high" : "normal"
+  );
+
+  private final OllamaOptions.Cache options;
+  private final ObjectMapper objectMapper;
+  private final Map<CacheKey, List<CachedResponse>> entries;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter bypasses;
+  private final Counter evictions;
+
+  public OllamaResponseCache(
+      OllamaOptions ollamaOptions,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry
+  ) {
+    this.options = ollamaOptions.getCache();
+    this.objectMapper = objectMapper;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, List<CachedResponse>> eldest) {
+        if (size() > options.getMaxEntries()) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    this.hits = Counter.builder("ollama.cache.requests").tag("result", "hit")
+        .register(meterRegistry);
+    this.misses = Counter.builder("ollama.cache.requests").tag("result", "miss")
+        .register(meterRegistry);
+    this.bypasses = Counter.builder("ollama.cache.requests").tag("result", "bypass")
+        .register(meterRegistry);
+    this.evictions = Counter.builder("ollama.cache.evictions").register(meterRegistry);
+    Gauge.builder("ollama.cache.size", this, OllamaResponseCache::size)
+        .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return options.isEnabled();
+  }
+
+  public CacheKey key(LogScenario scenario, LogLevel level, Map<String, Object> contextData) {
+    return new CacheKey(scenario, level, signature(contextData));
+  }
+
+  public Optional<StructuredLogResponse> lookup(CacheKey key) {
+    if (!options.isEnabled()) {
+      return Optional.empty();
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    synchronized (entries) {
+      List<CachedResponse> variants = entries.get(key);
+      if (variants != null) {
+        long oldest = System.currentTimeMillis() - options.getTtl().toMillis();
+        variants.removeIf(variant -> variant.createdAt() < oldest);
+        if (variants.isEmpty()) {
+          entries.remove(key);
+          variants = null;
+        }
+      }
+
+      if (variants == null) {
+        misses.increment();
+        return Optional.empty();
+      }
+      if (variants.size() < options.getVariantsPerKey()
+          && random.nextDouble() >= options.getReuseProbability()) {
+        bypasses.increment();
+        return Optional.empty();
+      }
+
+      hits.increment();
+      // callers stamp ids and levels onto the entry, so every hit gets its own copy
+      return Optional.of(variants.get(random.nextInt(variants.size())).response().copy());
+    }
+  }
+
+  public void put(CacheKey key, StructuredLogResponse response) {
+    if (!options.isEnabled() || response == null) {
+      return;
+    }
+    put(key, new CachedResponse(System.currentTimeMillis(), response.copy()));
+  }
+
+  private void put(CacheKey key, CachedResponse cachedResponse) {
+    synchronized (entries) {
+      List<CachedResponse> variants = entries.computeIfAbsent(key, _ -> new ArrayList<>());
+      if (variants.size() >= options.getVariantsPerKey()) {
+        variants.removeFirst();
+      }
+      variants.add(cachedResponse);
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  @PostConstruct
+  public void load() {
+    Path file = persistenceFile();
+    if (file == null || !Files.isRegularFile(file)) {
+      return;
+    }
+
+    try {
+      List<PersistedEntry> persisted = objectMapper.readValue(file.toFile(),
+          new TypeReference<>() {
+          });
+      long oldest = System.currentTimeMillis() - options.getTtl().toMillis();
+      persisted.stream()
+          .filter(entry -> entry.createdAt() >= oldest)
+          .forEach(entry -> put(
+              new CacheKey(entry.scenario(), entry.level(), entry.signature()),
+              new CachedResponse(entry.createdAt(), entry.response())));
+      log.info("{} Cache restored file={} entries={}", LOG_PREFIX, file, size());
+    } catch (IOException ex) {
+      log.warn("{} Failed to restore cache file={}: {}", LOG_PREFIX, file, ex.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void persist() {
+    Path file = persistenceFile();
+    if (file == null) {
+      return;
+    }
+
+    List<PersistedEntry> snapshot = new ArrayList<>();
+    synchronized (entries) {
+      entries.forEach((key, variants) -> variants.forEach(variant ->
+          snapshot.add(new PersistedEntry(key.scenario(), key.level(), key.signature(),
+              variant.createdAt(), variant.response()))));
+    }
+
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      objectMapper.writeValue(temp.toFile(), snapshot);
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+      log.info("{} Cache persisted file={} responses={}", LOG_PREFIX, file, snapshot.size());
+    } catch (IOException ex) {
+      log.warn("{} Failed to persist cache file={}: {}", LOG_PREFIX, file, ex.getMessage());
+    }
+  }
+
+  private Path persistenceFile() {
+    if (!options.isEnabled() || options.getPersistenceFile() == null
+        || options.getPersistenceFile().isBlank()) {
+      return null;
+    }
+    return Path.of(options.getPersistenceFile());
+  }
+
+  static String signature(Map<String, Object> contextData) {
+    if (contextData == null || contextData.isEmpty()) {
+      return "";
+    }
+
+    StringBuilder signature = new StringBuilder();
+    new TreeMap<>(contextData).forEach((name, value) -> {
+      Function<Object, String> bucket = SEMANTIC_KEYS.get(name);
+      if (bucket != null && value != null) {
+        signature.append(name).append('=').append(bucket.apply(value)).append(';');
+      }
+    });
+    return signature.toString();
+  }
+
+  private static String text(Object value) {
+    return value.toString().toLowerCase(Locale.ROOT);
+  }
+
+  private static String band(long value, long medium, long high) {
+    return value >= high ? "high" : value >= medium ? "medium" : "low";
+  }
+
+  /**
+   * Leading digits of {@code 1200ms} or {@code 85%}, zero when there are none.
+   */
+  private static long leadingNumber(Object value) {
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+    String text = value.toString();
+    int digits = 0;
+    while (digits < text.length() && digits < 18 && Character.isDigit(text.charAt(digits))) {
+      digits++;
+    }
+    return digits > 0 ? Long.parseLong(text.substring(0, digits)) : 0;
+  }
+
+  public record CacheKey(LogScenario scenario, LogLevel level, String signature) {
+  }
+
+  private record CachedResponse(long createdAt, StructuredLogResponse response) {
+  }
+
+  private record PersistedEntry(
+      LogScenario scenario,
+      LogLevel level,
+      String signature,
+      long createdAt,
+      StructuredLogResponse response
+  ) {
+  }
+}
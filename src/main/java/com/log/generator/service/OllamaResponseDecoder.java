@@ -0,0 +1,139 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.CoercionAction;
+import com.fasterxml.jackson.databind.cfg.CoercionInputShape;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.type.LogicalType;
+import com.log.generator.model.StructuredLogResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serial;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Single-pass decoder for non-streaming {@code /api/generate} responses. The envelope is scanned
+ * straight from the response bytes and the generated object is bound from the parser's
+ * unescaped {@code response} characters, without an intermediate string or tree. Given a usage
+ * consumer, the fields after {@code response} are scanned for the token counts as well.
+ */
+public class OllamaResponseDecoder {
+
+  private final JsonFactory factory;
+  private final ObjectReader reader;
+
+  public OllamaResponseDecoder(ObjectMapper objectMapper) {
+    // same metadata normalization as the stream decoder: null or string metadata is dropped
+    ObjectMapper mapper = objectMapper.copy().addHandler(new StringMetadataHandler());
+    mapper.coercionConfigFor(LogicalType.Map)
+        .setCoercion(CoercionInputShape.EmptyString, CoercionAction.AsNull);
+    this.factory = mapper.getFactory();
+    this.reader = mapper.readerFor(StructuredLogResponse.class);
+  }
+
+  public StructuredLogResponse decode(DataBuffer dataBuffer) throws IOException {
+    return decode(dataBuffer, null);
+  }
+
+  /**
+   * Decodes the response and passes the envelope's {@link OllamaUsage} to {@code usage}, also
+   * when the generated object fails to bind.
+   */
+  public StructuredLogResponse decode(DataBuffer dataBuffer, Consumer<OllamaUsage> usage)
+      throws IOException {
+    try (InputStream in = dataBuffer.asInputStream()) {
+      return decode(factory.createParser(in), usage);
+    }
+  }
+
+  public StructuredLogResponse decode(byte[] body) throws IOException {
+    return decode(factory.createParser(body), null);
+  }
+
+  private StructuredLogResponse decode(JsonParser envelope, Consumer<OllamaUsage> usage)
+      throws IOException {
+    try (envelope) {
+      if (envelope.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Ollama response is not a JSON object");
+      }
+      while (envelope.nextToken() == JsonToken.FIELD_NAME) {
+        String name = envelope.currentName();
+        JsonToken value = envelope.nextToken();
+        if ("response".equals(name) && value == JsonToken.VALUE_STRING) {
+          if (usage == null) {
+            return bind(envelope);
+          }
+          try {
+            return bind(envelope);
+          } finally {
+            // Ollama writes the counts after the response
+            OllamaUsage counts = OllamaUsage.read(envelope);
+            if (counts != null) {
+              usage.accept(counts);
+            }
+          }
+        }
+        if ("error".equals(name) && value == JsonToken.VALUE_STRING) {
+          throw new IOException("Ollama error: " + envelope.getText());
+        }
+        envelope.skipChildren();
+      }
+      throw new IOException("Ollama response has no response field");
+    }
+  }
+
+  private StructuredLogResponse bind(JsonParser envelope) throws IOException {
+    try (JsonParser response = factory.createParser(envelope.getTextCharacters(),
+        envelope.getTextOffset(), envelope.getTextLength())) {
+      StructuredLogResponse result = reader.readValue(response);
+      if (result == null) {
+        throw new IOException("LLM response is empty");
+      }
+      return result;
+    } catch (IOException ex) {
+      throw new MalformedResponseException(new String(envelope.getTextCharacters(),
+          envelope.getTextOffset(), envelope.getTextLength()), ex);
+    }
+  }
+
+  /**
+   * The envelope was valid but the generated object did not bind; carries the generated text so
+   * it can be repaired.
+   */
+  public static class MalformedResponseException extends IOException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String response;
+
+    public MalformedResponseException(String response, IOException cause) {
+      super(cause.getMessage(), cause);
+      this.response = response;
+    }
+
+    public String getResponse() {
+      return response;
+    }
+  }
+
+  private static final class StringMetadataHandler extends DeserializationProblemHandler {
+
+    @Override
+    public Object handleMissingInstantiator(DeserializationContext ctxt, Class<?> instClass,
+        ValueInstantiator valueInsta, JsonParser p, String msg) throws IOException {
+      if (Map.class.isAssignableFrom(instClass) && p.hasToken(JsonToken.VALUE_STRING)) {
+        return null;
+      }
+      return NOT_HANDLED;
+    }
+  }
+}
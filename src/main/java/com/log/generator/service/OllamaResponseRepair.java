@@ -0,0 +1,373 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.OllamaOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Salvages generated objects that Ollama cut short ({@code num_predict} or the {@code "}\n"}
+ * stop sequence) or that do not bind. The text is closed at its last complete value, fields that
+ * fail the {@code app-log} schema are dropped and a missing level is taken from the request.
+ * Parse outcomes are counted per model and scenario as {@code ollama.responses}, one per
+ * requested entry.
+ */
+@Slf4j
+@Component
+public class OllamaResponseRepair {
+
+  private static final String LOG_PREFIX = "[SVC-OLLAMA-REPAIR]:";
+  private static final String FORMAT = "app-log";
+
+  private static final int KEY_OR_END = 0;
+  private static final int KEY = 1;
+  private static final int COLON = 2;
+  private static final int VALUE = 3;
+  private static final int VALUE_OR_END = 4;
+  private static final int AFTER_VALUE = 5;
+  private static final int STRING = 6;
+  private static final int SCALAR = 7;
+
+  private final ObjectMapper objectMapper;
+  private final ObjectReader entryReader;
+  private final OllamaOptions ollamaOptions;
+  private final MeterRegistry meterRegistry;
+  private final Schema schema;
+
+  public OllamaResponseRepair(ObjectMapper objectMapper, OllamaOptions ollamaOptions,
+      MeterRegistry meterRegistry) {
+    this.objectMapper = objectMapper;
+    this.entryReader = objectMapper.readerFor(StructuredLogResponse.class)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.ollamaOptions = ollamaOptions;
+    this.meterRegistry = meterRegistry;
+    this.schema = Schema.parse(objectMapper, ollamaOptions.getFormat(FORMAT));
+  }
+
+  /**
+   * Repairs a single generated object, recording the call as salvaged or failed.
+   */
+  public Optional<StructuredLogResponse> salvage(String response, LogScenario scenario,
+      LogLevel level) {
+    Optional<StructuredLogResponse> salvaged = repairTree(response)
+        .filter(JsonNode::isObject)
+        .flatMap(node -> bind((ObjectNode) node, level));
+    if (salvaged.isPresent()) {
+      recordSalvaged(scenario);
+      log.debug("{} Salvaged response model={} length={}", LOG_PREFIX,
+          ollamaOptions.getModel(), response.length());
+    } else {
+      recordFailed(scenario);
+    }
+    return salvaged;
+  }
+
+  /**
+   * Closes truncated JSON and parses it, without schema checks or counting.
+   */
+  public Optional<JsonNode> repairTree(String response) {
+    String closed = close(response);
+    if (closed == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(objectMapper.readTree(closed));
+    } catch (Exception ex) {
+      log.debug("{} Repaired text still invalid: {}", LOG_PREFIX, ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Drops fields that fail the schema and fills the level, then binds the entry. Empty when a
+   * required field other than the level is missing.
+   */
+  public Optional<StructuredLogResponse> bind(ObjectNode node, LogLevel level) {
+    schema.conform(node);
+    if (!node.has("level")) {
+      node.put("level", level.name());
+    }
+    for (String field : schema.required()) {
+      if (!node.has(field) || node.get(field).asText().isBlank()) {
+        return Optional.empty();
+      }
+    }
+    try {
+      return Optional.of(entryReader.readValue(node));
+    } catch (Exception ex) {
+      log.debug("{} Conformed entry failed to bind: {}", LOG_PREFIX, ex.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  public void recordParsed(LogScenario scenario) {
+    counter(scenario, "parsed").increment();
+  }
+
+  public void recordSalvaged(LogScenario scenario) {
+    counter(scenario, "salvaged").increment();
+  }
+
+  public void recordFailed(LogScenario scenario) {
+    counter(scenario, "failed").increment();
+  }
+
+  private Counter counter(LogScenario scenario, String result) {
+    return Counter.builder("ollama.responses")
+        .tag("model", String.valueOf(ollamaOptions.getModel()))
+        .tag("scenario", scenario.name())
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns the first JSON object in {@code text}: leading prose and trailing text are ignored,
+   * raw control characters in strings are escaped, trailing commas and dangling keys are removed
+   * and a truncated object is cut at its last complete value and closed. Null when the text has
+   * no object.
+   */
+  static String close(String text) {
+    int start = text.indexOf('{');
+    if (start < 0) {
+      return null;
+    }
+
+    StringBuilder out = new StringBuilder(text.length() + 8);
+    char[] stack = new char[16];
+    int depth = 0;
+    char[] safeStack = new char[16];
+    int safeDepth = 0;
+    int safeLength = 0;
+    int state = VALUE;
+    boolean key = false;
+    boolean escaped = false;
+
+    scan:
+    for (int i = start; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (state == STRING) {
+        if (escaped) {
+          escaped = false;
+          out.append(c);
+        } else if (c == '\\') {
+          escaped = true;
+          out.append(c);
+        } else if (c == '"') {
+          out.append(c);
+          state = key ? COLON : AFTER_VALUE;
+          if (!key) {
+            safeLength = out.length();
+            safeDepth = snapshot(stack, depth, safeStack);
+          }
+        } else if (c < 0x20) {
+          appendControl(out, c);
+        } else {
+          out.append(c);
+        }
+        continue;
+      }
+      if (state == SCALAR) {
+        if (isScalar(c)) {
+          out.append(c);
+          continue;
+        }
+        state = AFTER_VALUE;
+        safeLength = out.length();
+        safeDepth = snapshot(stack, depth, safeStack);
+      }
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+
+      if (c == '}' || c == ']') {
+        if (depth == 0 || stack[depth - 1] != (c == '}' ? '{' : '[')) {
+          break;
+        }
+        if (state != AFTER_VALUE && state != KEY_OR_END && state != VALUE_OR_END) {
+          out.setLength(safeLength);
+        }
+        out.append(c);
+        depth--;
+        if (depth == 0) {
+          return out.toString();
+        }
+        state = AFTER_VALUE;
+        safeLength = out.length();
+        safeDepth = snapshot(stack, depth, safeStack);
+        continue;
+      }
+
+      switch (state) {
+        case VALUE, VALUE_OR_END -> {
+          if (c == '{' || c == '[') {
+            if (depth == stack.length) {
+              break scan;
+            }
+            stack[depth++] = c;
+            out.append(c);
+            state = c == '{' ? KEY_OR_END : VALUE_OR_END;
+            safeLength = out.length();
+            safeDepth = snapshot(stack, depth, safeStack);
+          } else if (c == '"') {
+            key = false;
+            state = STRING;
+            out.append(c);
+          } else if (c == '-' || Character.isLetterOrDigit(c)) {
+            state = SCALAR;
+            out.append(c);
+          } else {
+            break scan;
+          }
+        }
+        case KEY, KEY_OR_END -> {
+          if (c != '"') {
+            break scan;
+          }
+          key = true;
+          state = STRING;
+          out.append(c);
+        }
+        case COLON -> {
+          if (c != ':') {
+            break scan;
+          }
+          state = VALUE;
+          out.append(c);
+        }
+        case AFTER_VALUE -> {
+          if (c != ',') {
+            break scan;
+          }
+          state = stack[depth - 1] == '{' ? KEY : VALUE;
+          out.append(c);
+        }
+        default -> {
+          break scan;
+        }
+      }
+    }
+
+    if (state == STRING && !key) {
+      if (escaped) {
+        out.setLength(out.length() - 1);
+      }
+      trimPartialUnicodeEscape(out);
+      out.append('"');
+      safeLength = out.length();
+      safeDepth = snapshot(stack, depth, safeStack);
+    }
+    if (safeDepth == 0) {
+      return null;
+    }
+
+    out.setLength(safeLength);
+    for (int i = safeDepth - 1; i >= 0; i--) {
+      out.append(safeStack[i] == '{' ? '}' : ']');
+    }
+    return out.toString();
+  }
+
+  private static int snapshot(char[] stack, int depth, char[] target) {
+    System.arraycopy(stack, 0, target, 0, depth);
+    return depth;
+  }
+
+  private static boolean isScalar(char c) {
+    return Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.';
+  }
+
+  private static void appendControl(StringBuilder out, char c) {
+    switch (c) {
+      case '\n' -> out.append("\\n");
+      case '\r' -> out.append("\\r");
+      case '\t' -> out.append("\\t");
+      default -> out.append(String.format("\\u%04x", (int) c));
+    }
+  }
+
+  private static void trimPartialUnicodeEscape(StringBuilder out) {
+    int length = out.length();
+    for (int digits = 0; digits < 4 && length - digits - 2 >= 0; digits++) {
+      int u = length - digits - 1;
+      if (out.charAt(u) == 'u' && out.charAt(u - 1) == '\\') {
+        out.setLength(u - 1);
+        return;
+      }
+    }
+  }
+
+  /**
+   * The subset of the configured JSON schema the repair checks: property types, enums,
+   * required properties and whether additional properties are allowed.
+   */
+  private record Schema(Map<String, Property> properties, List<String> required,
+                        boolean additionalProperties) {
+
+    private static Schema parse(ObjectMapper objectMapper, String format) {
+      Map<String, Property> properties = new HashMap<>();
+      List<String> required = new ArrayList<>();
+      if (format == null) {
+        return new Schema(properties, List.of("message", "level"), true);
+      }
+      try {
+        JsonNode root = objectMapper.readTree(format);
+        root.path("properties").properties().forEach(field -> {
+          Set<String> values = new HashSet<>();
+          field.getValue().path("enum").forEach(value -> values.add(value.asText()));
+          properties.put(field.getKey(),
+              new Property(field.getValue().path("type").asText(""), values));
+        });
+        root.path("required").forEach(field -> required.add(field.asText()));
+        return new Schema(properties, required,
+            root.path("additionalProperties").asBoolean(true));
+      } catch (Exception ex) {
+        log.error("{} Failed to parse {} schema: {}", LOG_PREFIX, FORMAT, ex.getMessage());
+        return new Schema(properties, List.of("message", "level"), true);
+      }
+    }
+
+    private void conform(ObjectNode node) {
+      Iterator<Map.Entry<String, JsonNode>> fields = node.properties().iterator();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        Property property = properties.get(field.getKey());
+        if (property == null ? !additionalProperties : !property.accepts(field.getValue())) {
+          fields.remove();
+        }
+      }
+    }
+  }
+
+  private record Property(String type, Set<String> values) {
+
+    private boolean accepts(JsonNode value) {
+      boolean typed = switch (type) {
+        case "string" -> value.isTextual();
+        case "integer" -> value.isIntegralNumber();
+        case "number" -> value.isNumber();
+        case "boolean" -> value.isBoolean();
+        case "object" -> value.isObject();
+        case "array" -> value.isArray();
+        default -> !value.isNull();
+      };
+      return typed && (values.isEmpty() || values.contains(value.asText()));
+    }
+  }
+}
@@ -1,19 +1,30 @@
 package com.log.generator.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.GenerationRequest;
 import com.log.generator.model.LogLevel;
 import com.log.generator.model.LogScenario;
 import com.log.generator.model.StructuredLogResponse;
 import com.log.generator.properties.OllamaOptions;
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -21,9 +32,15 @@ import reactor.core.publisher.Mono;
 public class OllamaService {
 
   private final ObjectMapper objectMapper;
-  private final WebClient ollamaWebClient;
+  private final OllamaEndpointPool endpointPool;
   private final OllamaOptions ollamaOptions;
   private final PromptService promptService;
+  private final OllamaResponseCache responseCache;
+  private final AdaptiveBatchSizer batchSizer;
+  private final OllamaRequestFactory requestFactory;
+  private final OllamaResponseRepair responseRepair;
+  private final OllamaResponseDecoder responseDecoder;
+  private final OllamaMetrics metrics;
 
   private static final String REQUEST_URI = "/api/generate";
   private static final String LOG_PREFIX = "[SVC-OLLAMA]:";
@@ -32,101 +49,241 @@ public class OllamaService {
 
   public OllamaService(
       ObjectMapper objectMapper,
-      WebClient ollamaWebClient,
+      OllamaEndpointPool endpointPool,
       OllamaOptions ollamaOptions,
-      PromptService promptService
+      PromptService promptService,
+      OllamaResponseCache responseCache,
+      AdaptiveBatchSizer batchSizer,
+      OllamaRequestFactory requestFactory,
+      OllamaResponseRepair responseRepair,
+      OllamaMetrics metrics
   ) {
     this.objectMapper = objectMapper;
-    this.ollamaWebClient = ollamaWebClient;
+    this.endpointPool = endpointPool;
     this.ollamaOptions = ollamaOptions;
     this.promptService = promptService;
+    this.responseCache = responseCache;
+    this.batchSizer = batchSizer;
+    this.requestFactory = requestFactory;
+    this.responseRepair = responseRepair;
+    this.responseDecoder = new OllamaResponseDecoder(objectMapper);
+    this.metrics = metrics;
   }
 
   public Mono<StructuredLogResponse> generateLogMessage(
       LogScenario scenario, LogLevel logLevel, Map<String, Object> contextData
   ) {
+    OllamaResponseCache.CacheKey cacheKey = responseCache.key(scenario, logLevel, contextData);
+    Optional<StructuredLogResponse> cached = responseCache.lookup(cacheKey);
+    if (cached.isPresent()) {
+      log.debug("{} Cache hit scenario={} level={}", LOG_PREFIX, scenario.name(), logLevel);
+      return Mono.just(cached.get());
+    }
+
     int requestId = requestCounter.incrementAndGet();
     long start = System.nanoTime();
 
-    return callOllama(buildPrompt(scenario, logLevel, contextData))
+    return callOllama(buildPrompt(scenario, logLevel, contextData), scenario, logLevel)
+        .doOnNext(result -> responseCache.put(cacheKey, result))
         .doOnSuccess(result ->
-            log.info("{} Request completed request_id={} duration={}s message='{}'",
+            log.info("{} Request completed request_id={} duration_ms={} message='{}'",
                 LOG_PREFIX,
                 requestId,
-                (System.nanoTime() - start) / 1_000_000 / 1_000,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
                 result.getMessage()));
   }
 
-  private Mono<StructuredLogResponse> callOllama(String prompt) {
-    Map<String, Object> request = new HashMap<>();
-    Map<String, Object> options = Map.of(
-        "temperature", 0.7,
-        "num_predict", 300,
-        "top_p", 0.9,
-        "repeat_penalty", 1.1,
-        "num_batch", 32,
-        "num_gpu", -1,
-        "num_ctx", 3072
-    );
-    request.put("model", ollamaOptions.getModel());
-    request.put("prompt", prompt);
-    request.put("stream", false);
-    request.put("format", outputSchema("app-log"));
-    request.put("options", options);
-    request.put("stop", "}\n");
-
-    log.info("{} Request POST={}{} Model={}", LOG_PREFIX, ollamaOptions.getBaseUrl(), REQUEST_URI,
-        ollamaOptions.getModel());
-
-    return ollamaWebClient.post()
+  public Flux<GeneratedEntry> generateLogBatch(List<GenerationRequest> requests) {
+    int requestId = requestCounter.incrementAndGet();
+    long start = System.nanoTime();
+
+    byte[] request = requestFactory.batch(metrics.timePrompt(OllamaMetrics.BATCH,
+        () -> promptService.buildBatchPrompt(requests)), requests.size());
+
+    return endpointPool.exchange(endpoint -> {
+          log.info("{} Batch request POST={}{} Model={} entries={}", LOG_PREFIX,
+              endpoint.getBaseUrl(), REQUEST_URI, ollamaOptions.getModel(), requests.size());
+          long sent = System.nanoTime();
+          return post(endpoint, request).bodyToMono(String.class).map(body -> {
+            metrics.recordRequest(OllamaMetrics.BATCH, endpoint, System.nanoTime() - sent);
+            return new BatchBody(endpoint, body);
+          });
+        })
+        .flatMapMany(body -> Flux.fromIterable(metrics.timeParse(OllamaMetrics.BATCH,
+            () -> extractBatchResponse(body, requests))))
+        .doOnComplete(() -> {
+          Duration latency = Duration.ofNanos(System.nanoTime() - start);
+          batchSizer.onSuccess(requests.size(), latency);
+          log.info("{} Batch request completed request_id={} duration_ms={} entries={}",
+              LOG_PREFIX, requestId, latency.toMillis(), requests.size());
+        })
+        .doOnError(_ -> batchSizer.onFailure());
+  }
+
+  private Mono<StructuredLogResponse> callOllama(String prompt, LogScenario scenario,
+      LogLevel level) {
+    byte[] request = requestFactory.single(prompt);
+
+    return endpointPool.exchange(endpoint -> {
+      log.info("{} Request POST={}{} Model={}", LOG_PREFIX, endpoint.getBaseUrl(), REQUEST_URI,
+          ollamaOptions.getModel());
+
+      long sent = System.nanoTime();
+      WebClient.ResponseSpec response = post(endpoint, request);
+      if (ollamaOptions.isStreaming()) {
+        return decodeStream(response.bodyToFlux(DataBuffer.class), endpoint, sent, scenario,
+            level);
+      }
+      return response.bodyToMono(DataBuffer.class).map(body -> {
+        metrics.recordRequest(OllamaMetrics.SINGLE, endpoint, System.nanoTime() - sent);
+        return metrics.timeParse(OllamaMetrics.SINGLE, () -> extractResponse(body, scenario,
+            level, usage -> metrics.recordUsage(endpoint, usage)));
+      });
+    });
+  }
+
+  private WebClient.ResponseSpec post(OllamaEndpoint endpoint, byte[] request) {
+    return endpoint.getWebClient().post()
         .uri(REQUEST_URI)
+        .contentType(MediaType.APPLICATION_JSON)
         .bodyValue(request)
-        .retrieve()
-        .bodyToMono(String.class)
-        .map(this::extractResponse);
+        .retrieve();
+  }
+
+  private Mono<StructuredLogResponse> decodeStream(Flux<DataBuffer> body, OllamaEndpoint endpoint,
+      long sent, LogScenario scenario, LogLevel level) {
+    return Mono.defer(() -> {
+      OllamaStreamDecoder decoder;
+      try {
+        decoder = new OllamaStreamDecoder(objectMapper);
+      } catch (IOException ex) {
+        return Mono.error(ex);
+      }
+
+      return body.<StructuredLogResponse>handle((dataBuffer, sink) -> {
+            try {
+              StructuredLogResponse result = decoder.feed(dataBuffer);
+              if (result != null) {
+                responseRepair.recordParsed(scenario);
+                sink.next(result);
+              }
+            } catch (Exception ex) {
+              sink.next(salvage(decoder.getResponseText(), scenario, level, ex));
+            } finally {
+              DataBufferUtils.release(dataBuffer);
+            }
+          })
+          .next()
+          .switchIfEmpty(Mono.fromCallable(() -> salvage(decoder.getResponseText(), scenario,
+              level, new IOException("LLM stream ended before the JSON object was complete"))))
+          .doOnSuccess(_ -> recordStream(endpoint, sent, decoder));
+    });
+  }
+
+  /**
+   * The stream is cancelled at the closing brace, before the {@code done} envelope with the
+   * token counts, so the eval side is taken from the chunks: one token each, generated between
+   * the first and the last chunk.
+   */
+  private void recordStream(OllamaEndpoint endpoint, long sent, OllamaStreamDecoder decoder) {
+    metrics.recordRequest(OllamaMetrics.STREAM, endpoint, System.nanoTime() - sent);
+    if (decoder.getResponseChunks() > 0) {
+      metrics.recordFirstToken(endpoint, decoder.getFirstChunkNanos() - sent);
+      metrics.recordUsage(endpoint, new OllamaUsage(0, 0, decoder.getResponseChunks(),
+          decoder.getLastChunkNanos() - decoder.getFirstChunkNanos(), 0));
+    }
   }
 
-  private StructuredLogResponse extractResponse(String jsonResponse) {
+  StructuredLogResponse extractResponse(DataBuffer body, LogScenario scenario, LogLevel level,
+      Consumer<OllamaUsage> usage) {
     try {
-      JsonNode node = objectMapper.readTree(jsonResponse).get("response");
-      JsonNode responseNode = parseJsonNode(node);
-      return objectMapper.treeToValue(responseNode, StructuredLogResponse.class);
+      StructuredLogResponse result = responseDecoder.decode(body, usage);
+      responseRepair.recordParsed(scenario);
+      return result;
+    } catch (OllamaResponseDecoder.MalformedResponseException ex) {
+      return salvage(ex.getResponse(), scenario, level, ex);
     } catch (Exception ex) {
       log.error("{} Failed to parse JSON: {}", LOG_PREFIX, ex.getMessage());
+      responseRepair.recordFailed(scenario);
       throw new RuntimeException("LLM response parsing failed", ex);
+    } finally {
+      DataBufferUtils.release(body);
     }
   }
 
-  private JsonNode parseJsonNode(JsonNode jsonNode) {
+  private StructuredLogResponse salvage(String response, LogScenario scenario, LogLevel level,
+      Exception cause) {
+    return responseRepair.salvage(response, scenario, level).orElseThrow(() -> {
+      log.error("{} Failed to parse JSON: {}", LOG_PREFIX, cause.getMessage());
+      return new RuntimeException("LLM response parsing failed", cause);
+    });
+  }
+
+  private List<GeneratedEntry> extractBatchResponse(BatchBody body,
+      List<GenerationRequest> requests) {
+    String response;
+    try {
+      JsonNode envelope = objectMapper.readTree(body.json());
+      metrics.recordUsage(body.endpoint(), OllamaUsage.of(envelope));
+      response = envelope.path("response").asText();
+    } catch (Exception ex) {
+      log.error("{} Failed to parse batch JSON: {}", LOG_PREFIX, ex.getMessage());
+      recordFailed(requests);
+      throw new RuntimeException("LLM batch response parsing failed", ex);
+    }
+
+    boolean repaired = false;
+    JsonNode entries;
     try {
-      String response = jsonNode.asText();
-      JsonNode responseNode = objectMapper.readTree(response);
-      if (responseNode.has("metadata")) {
-        JsonNode metadataNode = responseNode.get("metadata");
-        if (metadataNode.isNull() || metadataNode.asText().trim().isEmpty()) {
-          ((ObjectNode) responseNode).remove("metadata");
+      entries = objectMapper.readTree(response).get("entries");
+    } catch (Exception ex) {
+      log.debug("{} Repairing batch JSON: {}", LOG_PREFIX, ex.getMessage());
+      repaired = true;
+      entries = responseRepair.repairTree(response).map(node -> node.get("entries")).orElse(null);
+    }
+    if (entries == null || !entries.isArray()) {
+      recordFailed(requests);
+      throw new RuntimeException("LLM batch response has no entries array");
+    }
+
+    // counted per requested entry, so a short or partly invalid batch shows as failures
+    List<GeneratedEntry> results = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      GenerationRequest request = requests.get(i);
+      Optional<StructuredLogResponse> entry = entries.get(i) instanceof ObjectNode objectNode
+          ? responseRepair.bind(objectNode, request.level())
+          : Optional.empty();
+      if (entry.isPresent()) {
+        results.add(new GeneratedEntry(request.scenario(), entry.get()));
+        if (repaired) {
+          responseRepair.recordSalvaged(request.scenario());
+        } else {
+          responseRepair.recordParsed(request.scenario());
+        }
+      } else {
+        if (i < entries.size()) {
+          log.warn("{} Dropping invalid batch entry index={}", LOG_PREFIX, i);
         }
+        responseRepair.recordFailed(request.scenario());
       }
-      return responseNode;
-    } catch (Exception ex) {
-      log.error("{} Failed to parse response node: {}", LOG_PREFIX, ex.getMessage());
-      throw new RuntimeException("LLM response parsing failed", ex);
     }
+
+    log.debug("{} Batch entries accepted={} requested={} returned={} repaired={}", LOG_PREFIX,
+        results.size(), requests.size(), entries.size(), repaired);
+    return results;
+  }
+
+  private void recordFailed(List<GenerationRequest> requests) {
+    requests.forEach(request -> responseRepair.recordFailed(request.scenario()));
   }
 
   private String buildPrompt(LogScenario scenario, LogLevel logLevel,
       Map<String, Object> contextData) {
-    return promptService.buildPrompt(scenario, logLevel, contextData);
+    return metrics.timePrompt(OllamaMetrics.SINGLE,
+        () -> promptService.buildPrompt(scenario, logLevel, contextData));
   }
 
-  private Map<String, Object> outputSchema(String formatType) {
-    try {
-      return objectMapper.readValue(ollamaOptions.getFormat(formatType), new TypeReference<>() {
-      });
-    } catch (Exception e) {
-      log.error("{} Failed to parse {} schema: {}", LOG_PREFIX, formatType, e.getMessage());
-      return null;
-    }
+  private record BatchBody(OllamaEndpoint endpoint, String json) {
   }
 
 }
@@ -0,0 +1,175 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.log.generator.model.StructuredLogResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Incrementally decodes Ollama's {@code stream: true} NDJSON envelopes. The {@code response}
+ * token chunks are fed into a second non-blocking parser whose events are recorded into a
+ * {@link TokenBuffer}, so the generated object is bound as soon as its closing brace arrives.
+ * Ollama streams one token per chunk, so the chunk count and arrival times stand in for the
+ * token counts of the final {@code done} envelope, which is not waited for.
+ */
+public class OllamaStreamDecoder {
+
+  private final ObjectMapper objectMapper;
+  private final JsonParser envelopeParser;
+  private final JsonParser responseParser;
+  private final TokenBuffer responseTokens;
+  private final StringBuilder responseText = new StringBuilder(512);
+
+  private int responseChunks;
+  private long firstChunkNanos;
+  private long lastChunkNanos;
+  private int envelopeDepth;
+  private int responseDepth;
+  private boolean responseField;
+  private boolean errorField;
+  private boolean pendingMetadata;
+  private boolean done;
+  private StructuredLogResponse result;
+
+  public OllamaStreamDecoder(ObjectMapper objectMapper) throws IOException {
+    this.objectMapper = objectMapper;
+    this.envelopeParser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+    this.responseParser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+    this.responseTokens = new TokenBuffer(objectMapper, false);
+  }
+
+  public StructuredLogResponse feed(DataBuffer dataBuffer) throws IOException {
+    try (DataBuffer.ByteBufferIterator buffers = dataBuffer.readableByteBuffers()) {
+      while (buffers.hasNext() && result == null) {
+        feed(buffers.next());
+      }
+    }
+    return result;
+  }
+
+  public StructuredLogResponse feed(ByteBuffer byteBuffer) throws IOException {
+    ((ByteBufferFeeder) envelopeParser).feedInput(byteBuffer);
+    JsonToken token;
+    while (result == null && (token = envelopeParser.nextToken()) != null
+        && token != JsonToken.NOT_AVAILABLE) {
+      onEnvelopeToken(token);
+    }
+    return result;
+  }
+
+  public boolean isDone() {
+    return done;
+  }
+
+  public StructuredLogResponse getResult() {
+    return result;
+  }
+
+  /**
+   * The generated text received so far, for salvaging a stream that ended early or failed to
+   * bind.
+   */
+  public String getResponseText() {
+    return responseText.toString();
+  }
+
+  public int getResponseChunks() {
+    return responseChunks;
+  }
+
+  /**
+   * {@link System#nanoTime()} at the first non-empty response chunk, zero before it.
+   */
+  public long getFirstChunkNanos() {
+    return firstChunkNanos;
+  }
+
+  public long getLastChunkNanos() {
+    return lastChunkNanos;
+  }
+
+  private void onEnvelopeToken(JsonToken token) throws IOException {
+    switch (token) {
+      case START_OBJECT, START_ARRAY -> envelopeDepth++;
+      case END_OBJECT, END_ARRAY -> envelopeDepth--;
+      case FIELD_NAME -> {
+        if (envelopeDepth == 1) {
+          String name = envelopeParser.currentName();
+          responseField = "response".equals(name);
+          errorField = "error".equals(name);
+        }
+      }
+      case VALUE_STRING -> {
+        if (envelopeDepth == 1 && errorField) {
+          throw new IOException("Ollama stream error: " + envelopeParser.getText());
+        }
+        if (envelopeDepth == 1 && responseField) {
+          onResponseChunk(envelopeParser.getText());
+        }
+      }
+      case VALUE_TRUE -> {
+        if (envelopeDepth == 1 && "done".equals(envelopeParser.currentName())) {
+          done = true;
+        }
+      }
+      default -> {
+      }
+    }
+  }
+
+  private void onResponseChunk(String chunk) throws IOException {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    lastChunkNanos = System.nanoTime();
+    if (responseChunks++ == 0) {
+      firstChunkNanos = lastChunkNanos;
+    }
+    responseText.append(chunk);
+    byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+    ((ByteArrayFeeder) responseParser).feedInput(bytes, 0, bytes.length);
+
+    JsonToken token;
+    while (result == null && (token = responseParser.nextToken()) != null
+        && token != JsonToken.NOT_AVAILABLE) {
+      onResponseToken(token);
+    }
+  }
+
+  private void onResponseToken(JsonToken token) throws IOException {
+    if (pendingMetadata) {
+      pendingMetadata = false;
+      if (token == JsonToken.VALUE_NULL || token == JsonToken.VALUE_STRING) {
+        return;
+      }
+      responseTokens.writeFieldName("metadata");
+    }
+
+    switch (token) {
+      case START_OBJECT, START_ARRAY -> responseDepth++;
+      case END_OBJECT, END_ARRAY -> responseDepth--;
+      case FIELD_NAME -> {
+        if (responseDepth == 1 && "metadata".equals(responseParser.currentName())) {
+          pendingMetadata = true;
+          return;
+        }
+      }
+      default -> {
+      }
+    }
+    responseTokens.copyCurrentEvent(responseParser);
+
+    if (responseDepth == 0 && token == JsonToken.END_OBJECT) {
+      try (JsonParser replay = responseTokens.asParser(objectMapper)) {
+        result = objectMapper.readValue(replay, StructuredLogResponse.class);
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.log.generator.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+
+/**
+ * Token counts and server-side durations reported with a {@code /api/generate} response
+ * ({@code prompt_eval_count}, {@code prompt_eval_duration}, {@code eval_count},
+ * {@code eval_duration}, {@code load_duration}). A field the response did not carry is zero.
+ */
+public record OllamaUsage(
+    long promptTokens,
+    long promptNanos,
+    long evalTokens,
+    long evalNanos,
+    long loadNanos
+) {
+
+  static OllamaUsage of(JsonNode envelope) {
+    return new OllamaUsage(envelope.path("prompt_eval_count").asLong(),
+        envelope.path("prompt_eval_duration").asLong(),
+        envelope.path("eval_count").asLong(),
+        envelope.path("eval_duration").asLong(),
+        envelope.path("load_duration").asLong());
+  }
+
+  /**
+   * Reads the rest of an envelope positioned after a field value; null when it is not valid
+   * JSON.
+   */
+  static OllamaUsage read(JsonParser envelope) {
+    long promptTokens = 0;
+    long promptNanos = 0;
+    long evalTokens = 0;
+    long evalNanos = 0;
+    long loadNanos = 0;
+    try {
+      while (envelope.nextToken() == JsonToken.FIELD_NAME) {
+        String name = envelope.currentName();
+        if (envelope.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+          // skips the context array, the longest part of the envelope
+          envelope.skipChildren();
+          continue;
+        }
+        switch (name) {
+          case "prompt_eval_count" -> promptTokens = envelope.getLongValue();
+          case "prompt_eval_duration" -> promptNanos = envelope.getLongValue();
+          case "eval_count" -> evalTokens = envelope.getLongValue();
+          case "eval_duration" -> evalNanos = envelope.getLongValue();
+          case "load_duration" -> loadNanos = envelope.getLongValue();
+          default -> {
+          }
+        }
+      }
+    } catch (IOException ex) {
+      return null;
+    }
+    return new OllamaUsage(promptTokens, promptNanos, evalTokens, evalNanos, loadNanos);
+  }
+}
@@ -1,12 +1,17 @@
 package com.log.generator.service;
 
+import com.log.generator.model.GenerationRequest;
 import com.log.generator.model.LogScenario;
 import com.log.generator.model.LogLevel;
+import com.log.generator.properties.GeneratorOptions;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
@@ -16,42 +21,129 @@ import org.springframework.util.StreamUtils;
 @Service
 public class PromptService {
 
-  private String basePrompt;
   private static final String LOG_PREFIX = "[SVC-PROMPT]:";
+  private static final String SCENARIO_PLACEHOLDER = "{SCENARIO}";
+  private static final String COUNT_PLACEHOLDER = "{COUNT}";
+  private static final String LEVEL_LINE = "\"level\": \"INFO|WARN|ERROR|DEBUG|TRACE\"";
+  private static final String SHARED_SCENARIO = "the TARGET scenario";
+  private static final int CONTEXT_LIMIT = 3;
+  private static final LogLevel[] LEVELS = LogLevel.values();
+  // builders are sized up front: a few context pairs per entry, a short line per batch slot
+  private static final int CONTEXT_CAPACITY = 256;
+  private static final int SLOT_CAPACITY = 64;
+
+  private final GeneratorOptions.Prompt options;
+
+  private String basePrompt;
+  private String[] batchSegments;
+  private String batchPrefix;
+  private int batchLength;
+  private String[][] prefixes;
+
+  public PromptService(GeneratorOptions generatorOptions) {
+    this.options = generatorOptions.getPrompt();
+  }
 
   @PostConstruct
   public void loadPrompts() {
     try {
-      ClassPathResource resource = new ClassPathResource("prompts/base-prompt.txt");
-      try (InputStream inputStream = resource.getInputStream()) {
-        basePrompt = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
-        log.info("{} Base prompt loaded successfully", LOG_PREFIX);
-      }
+      basePrompt = loadPrompt("prompts/base-prompt.txt");
+      batchSegments = loadPrompt("prompts/batch-prompt.txt")
+          .split(Pattern.quote(COUNT_PLACEHOLDER), -1);
+      log.info("{} Base prompt loaded successfully", LOG_PREFIX);
     } catch (IOException e) {
       log.error("{} Failed to load base prompt", LOG_PREFIX, e);
       throw new RuntimeException("Failed to load base prompt", e);
     }
+    compilePrefixes();
   }
 
-  public String buildPrompt(LogScenario scenario, LogLevel logLevel, Map<String, Object> contextData) {
-    String prompt = basePrompt.replace("{SCENARIO}", scenario.name());
+  private String loadPrompt(String path) throws IOException {
+    ClassPathResource resource = new ClassPathResource(path);
+    try (InputStream inputStream = resource.getInputStream()) {
+      return StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+    }
+  }
 
-    if (logLevel != null) {
-      prompt = prompt.replace("\"level\": \"INFO|WARN|ERROR|DEBUG|TRACE\"", 
-                             "\"level\": \"" + logLevel.name() + "\"");
+  private void compilePrefixes() {
+    String[] segments = basePrompt.split(Pattern.quote(SCENARIO_PLACEHOLDER), -1);
+    String sharedBody = String.join(SHARED_SCENARIO, segments);
+
+    prefixes = new String[LogScenario.values().length][LEVELS.length + 1];
+    for (LogScenario scenario : LogScenario.values()) {
+      String scenarioBody = String.join(scenario.name(), segments);
+      for (int i = 0; i <= LEVELS.length; i++) {
+        LogLevel level = i == 0 ? null : LEVELS[i - 1];
+        prefixes[scenario.ordinal()][i] = options.isSharedPrefix()
+            ? sharedBody + targetSection(scenario, level)
+            : withLevel(scenarioBody, level);
+      }
     }
 
-    if (contextData != null && !contextData.isEmpty()) {
-      StringBuilder contextBuilder = new StringBuilder();
-      contextBuilder.append("\n\nContext: ");
-      contextData.entrySet().stream().limit(3).forEach(entry ->
-          contextBuilder.append(entry.getKey()).append("=").append(entry.getValue()).append(" ")
-      );
-      prompt = prompt + contextBuilder;
+    batchPrefix = basePrompt.replace(SCENARIO_PLACEHOLDER, "the scenario of each slot")
+        + batchSegments[0];
+    batchLength = batchPrefix.length();
+    for (int i = 1; i < batchSegments.length; i++) {
+      batchLength += batchSegments[i].length() + 4;
     }
+    log.info("{} Prompt prefixes compiled combinations={} shared_prefix={}", LOG_PREFIX,
+        prefixes.length * prefixes[0].length, options.isSharedPrefix());
+  }
+
+  private static String withLevel(String prompt, LogLevel level) {
+    return level != null
+        ? prompt.replace(LEVEL_LINE, "\"level\": \"" + level.name() + "\"")
+        : prompt;
+  }
 
-    log.debug("{} Generated prompt: scenario={} level={}", LOG_PREFIX, scenario.name(), 
+  private static String targetSection(LogScenario scenario, LogLevel level) {
+    return "\n\nTARGET\nscenario=" + scenario.name()
+        + "\nlevel=" + (level != null ? level.name() : "choose per scenario") + "\n";
+  }
+
+  public String buildPrompt(LogScenario scenario, LogLevel logLevel, Map<String, Object> contextData) {
+    String prefix = prefixes[scenario.ordinal()][logLevel != null ? logLevel.ordinal() + 1 : 0];
+
+    log.debug("{} Generated prompt: scenario={} level={}", LOG_PREFIX, scenario.name(),
               logLevel != null ? logLevel.name() : "AUTO");
-    return prompt;
+    if (contextData == null || contextData.isEmpty()) {
+      return prefix;
+    }
+
+    StringBuilder prompt = new StringBuilder(prefix.length() + CONTEXT_CAPACITY);
+    prompt.append(prefix).append("\n\nContext: ");
+    appendContext(prompt, contextData);
+    return prompt.toString();
+  }
+
+  public String buildBatchPrompt(List<GenerationRequest> requests) {
+    StringBuilder prompt = new StringBuilder(batchLength
+        + requests.size() * (SLOT_CAPACITY + CONTEXT_CAPACITY));
+    prompt.append(batchPrefix);
+    for (int i = 1; i < batchSegments.length; i++) {
+      prompt.append(requests.size()).append(batchSegments[i]);
+    }
+
+    for (int i = 0; i < requests.size(); i++) {
+      GenerationRequest request = requests.get(i);
+      prompt.append(i + 1).append(". scenario=").append(request.scenario().name())
+          .append(" level=").append(request.level().name());
+      if (request.contextData() != null && !request.contextData().isEmpty()) {
+        prompt.append(" context: ");
+        appendContext(prompt, request.contextData());
+      }
+      prompt.append('\n');
+    }
+
+    log.debug("{} Generated batch prompt: entries={}", LOG_PREFIX, requests.size());
+    return prompt.toString();
+  }
+
+  private static void appendContext(StringBuilder prompt, Map<String, Object> contextData) {
+    Iterator<Map.Entry<String, Object>> entries = contextData.entrySet().iterator();
+    for (int i = 0; i < CONTEXT_LIMIT && entries.hasNext(); i++) {
+      Map.Entry<String, Object> entry = entries.next();
+      prompt.append(entry.getKey()).append('=').append(entry.getValue()).append(' ');
+    }
   }
 }
@@ -1,35 +1,157 @@
 package com.log.generator.service;
 
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
 import com.log.generator.model.LogLevel;
 import com.log.generator.model.LogScenario;
 import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.provider.GenerationProvider;
 import com.log.generator.utils.RandomDataGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Generates entries with the configured provider, falling back to Ollama. Generated entries are
+ * counted per mode and scenario as {@code generator.entries}, local provider misses as
+ * {@code generator.fallbacks}, or {@code generator.dropped} when {@code MARKOV} mode has the
+ * fallback disabled.
+ */
 @Slf4j
 @Service
 public class SyntheticLogGeneratorService {
 
-  private final OllamaService ollamaService;
+  private final Map<GenerationMode, GenerationProvider> providers =
+      new EnumMap<>(GenerationMode.class);
+  private final TemplateService templateService;
+  private final GeneratorOptions generatorOptions;
   private final AtomicLong entryCounter = new AtomicLong(0);
+  private final Counter[][] generated;
+  private final Counter[] fallbacks;
+  private final Counter[] dropped;
 
   private static final String SCHEDULER_NAME = "SYN-LOG-GEN";
   private static final String LOG_PREFIX = "[SVC-GENERATOR]:";
 
 
   @Autowired
-  public SyntheticLogGeneratorService(OllamaService ollamaService) {
-    this.ollamaService = ollamaService;
+  public SyntheticLogGeneratorService(
+      List<GenerationProvider> providers,
+      TemplateService templateService,
+      GeneratorOptions generatorOptions,
+      MeterRegistry meterRegistry
+  ) {
+    providers.forEach(provider -> this.providers.put(provider.mode(), provider));
+    this.templateService = templateService;
+    this.generatorOptions = generatorOptions;
+
+    LogScenario[] scenarios = LogScenario.values();
+    this.generated = new Counter[GenerationMode.values().length][scenarios.length];
+    this.fallbacks = new Counter[scenarios.length];
+    this.dropped = new Counter[scenarios.length];
+    for (LogScenario scenario : scenarios) {
+      for (GenerationMode mode : GenerationMode.values()) {
+        generated[mode.ordinal()][scenario.ordinal()] = Counter.builder("generator.entries")
+            .description("Entries generated, by the mode that produced them")
+            .tag("mode", mode.name())
+            .tag("scenario", scenario.name())
+            .register(meterRegistry);
+      }
+      fallbacks[scenario.ordinal()] = Counter.builder("generator.fallbacks")
+          .description("Entries the local provider had nothing for and passed to Ollama")
+          .tag("mode", generatorOptions.getMode().name())
+          .tag("scenario", scenario.name())
+          .register(meterRegistry);
+      dropped[scenario.ordinal()] = Counter.builder("generator.dropped")
+          .description("Entries the local provider had nothing for, with the Ollama fallback "
+              + "disabled")
+          .tag("mode", generatorOptions.getMode().name())
+          .tag("scenario", scenario.name())
+          .register(meterRegistry);
+    }
   }
 
   public Mono<StructuredLogResponse> generateLogEntry(LogScenario scenario, LogLevel level) {
+    return generateLogEntry(scenario, level, ThreadLocalRandom.current());
+  }
+
+  /**
+   * Generates an entry drawing the context data and any locally rendered content from
+   * {@code random}, so a seeded source reproduces the entry. The source must not be shared with
+   * concurrently generated entries.
+   */
+  public Mono<StructuredLogResponse> generateLogEntry(LogScenario scenario, LogLevel level,
+      RandomGenerator random) {
+    return generateLogEntry(scenario, level, random, UnaryOperator.identity());
+  }
+
+  /**
+   * Same as {@link #generateLogEntry(LogScenario, LogLevel, RandomGenerator)} with
+   * {@code llmGuard} (breaker, retry, concurrency) applied to the Ollama call only, so an entry
+   * served locally never pays for it.
+   */
+  public Mono<StructuredLogResponse> generateLogEntry(LogScenario scenario, LogLevel level,
+      RandomGenerator random, UnaryOperator<Mono<StructuredLogResponse>> llmGuard) {
+    GenerationProvider provider = providers.get(generatorOptions.getMode());
+    if (provider != null && provider.mode() != GenerationMode.LLM) {
+      Map<String, Object> contextData = provider.usesContext()
+          ? generateEnhancedContextData(scenario, random)
+          : Map.of();
+      return provider.generate(new GenerationRequest(scenario, level, contextData, random))
+          .doOnNext(_ -> {
+            entryCounter.incrementAndGet();
+            generated[provider.mode().ordinal()][scenario.ordinal()].increment();
+          })
+          .switchIfEmpty(Mono.defer(() -> {
+            if (!fallsBackToLlm(provider)) {
+              dropped[scenario.ordinal()].increment();
+              return Mono.empty();
+            }
+            fallbacks[scenario.ordinal()].increment();
+            log.debug("{} {} provider has no entry, falling back to LLM scenario={} level={}",
+                LOG_PREFIX, provider.mode(), scenario.name(), level.name());
+            return generateLlmEntry(scenario, level, random).transform(llmGuard);
+          }));
+    }
+    return generateLlmEntry(scenario, level, random).transform(llmGuard);
+  }
+
+  /**
+   * Whether the configured mode is served by a local provider without Ollama capacity: it can
+   * currently produce entries, or its misses are dropped rather than sent to Ollama.
+   */
+  public boolean isLocalProviderReady() {
+    GenerationProvider provider = providers.get(generatorOptions.getMode());
+    return provider != null && provider.mode() != GenerationMode.LLM
+        && (provider.isReady() || !fallsBackToLlm(provider));
+  }
+
+  private boolean fallsBackToLlm(GenerationProvider provider) {
+    return provider.mode() != GenerationMode.MARKOV
+        || generatorOptions.getMarkov().isLlmFallback();
+  }
+
+  public Mono<StructuredLogResponse> refreshTemplate(LogScenario scenario, LogLevel level) {
+    return generateLlmEntry(scenario, level, ThreadLocalRandom.current());
+  }
+
+  private Mono<StructuredLogResponse> generateLlmEntry(LogScenario scenario, LogLevel level,
+      RandomGenerator random) {
     long entryId = entryCounter.incrementAndGet();
 
     log.info(
@@ -37,9 +159,9 @@ public class SyntheticLogGeneratorService {
         scenario.name(), level.name()
     );
 
-    return Mono.fromCallable(() -> generateEnhancedContextData(scenario))
+    return Mono.fromCallable(() -> generateEnhancedContextData(scenario, random))
         .flatMap(contextData ->
-            ollamaService.generateLogMessage(scenario, level, contextData)
+            llmProvider().generate(new GenerationRequest(scenario, level, contextData, random))
         ).doOnSuccess(response -> log.info(
                 "{} Log entry generated entry_id={} level={} message_length={}",
                 LOG_PREFIX,
@@ -47,19 +169,48 @@ public class SyntheticLogGeneratorService {
                 response.getLevel(),
                 response.getMessage().length()
             )
-        );
+        ).doOnNext(response -> {
+          generated[GenerationMode.LLM.ordinal()][scenario.ordinal()].increment();
+          templateService.harvest(scenario, level, response);
+        });
+  }
+
+  public Flux<GeneratedEntry> generateLogBatch(List<Map.Entry<LogScenario, LogLevel>> slots,
+      RandomGenerator random) {
+    return Mono.fromCallable(() -> {
+          List<GenerationRequest> requests = new ArrayList<>(slots.size());
+          for (Map.Entry<LogScenario, LogLevel> slot : slots) {
+            entryCounter.incrementAndGet();
+            requests.add(new GenerationRequest(slot.getKey(), slot.getValue(),
+                generateEnhancedContextData(slot.getKey(), random), random));
+          }
+          return requests;
+        })
+        .flatMapMany(requests -> llmProvider().generateBatch(requests))
+        .doOnNext(entry -> {
+          generated[GenerationMode.LLM.ordinal()][entry.scenario().ordinal()].increment();
+          templateService.harvest(entry.scenario(), entry.response().getLevel(),
+              entry.response());
+        });
+  }
+
+  private GenerationProvider llmProvider() {
+    return providers.get(GenerationMode.LLM);
+  }
+
+  Map<String, Object> generateEnhancedContextData(LogScenario scenario) {
+    return generateEnhancedContextData(scenario, ThreadLocalRandom.current());
   }
 
-  private Map<String, Object> generateEnhancedContextData(LogScenario scenario) {
-    ThreadLocalRandom random = ThreadLocalRandom.current();
+  Map<String, Object> generateEnhancedContextData(LogScenario scenario, RandomGenerator random) {
     Map<String, Object> context = new HashMap<>();
 
-    context.put("request_id", RandomDataGenerator.generateRequestId());
-    context.put("thread_id", RandomDataGenerator.generateThreadId());
+    context.put("request_id", RandomDataGenerator.generateRequestId(random));
+    context.put("thread_id", RandomDataGenerator.generateThreadId(random));
 
     switch (scenario) {
       case USER_LOGIN:
-        context.put("ip_address", RandomDataGenerator.generateRandomIP());
+        context.put("ip_address", RandomDataGenerator.generateRandomIP(random));
         context.put("user_agent", "Mozilla/5.0 (compatible)");
         context.put("login_attempts", random.nextInt(1, 4));
         break;
@@ -72,19 +223,19 @@ public class SyntheticLogGeneratorService {
 
       case API_REQUEST:
         context.put("response_time", random.nextInt(50, 2000) + "ms");
-        context.put("status_code", RandomDataGenerator.getRandomStatusCode());
+        context.put("status_code", RandomDataGenerator.getRandomStatusCode(random));
         context.put("content_length", random.nextInt(100, 10000));
         break;
 
       case ERROR_HANDLING:
         context.put("error_code", "ERR_" + random.nextInt(1000, 9999));
         context.put("retry_count", random.nextInt(0, 5));
-        context.put("severity", RandomDataGenerator.getRandomSeverity());
+        context.put("severity", RandomDataGenerator.getRandomSeverity(random));
         break;
 
       case SECURITY_EVENT:
         context.put("risk_score", random.nextInt(1, 101));
-        context.put("source_ip", RandomDataGenerator.generateRandomIP());
+        context.put("source_ip", RandomDataGenerator.generateRandomIP(random));
         context.put("event_type", "SECURITY_ALERT");
         break;
 
@@ -97,7 +248,7 @@ public class SyntheticLogGeneratorService {
       case SYSTEM_STARTUP:
         context.put("startup_time", random.nextInt(1000, 30000) + "ms");
         context.put("active_profiles", "production,monitoring");
-        context.put("port", RandomDataGenerator.generatePort());
+        context.put("port", RandomDataGenerator.generatePort(random));
         break;
 
       case CACHE_OPERATION:
@@ -108,7 +259,7 @@ public class SyntheticLogGeneratorService {
 
       case FILE_OPERATION:
         context.put("file_size", random.nextInt(1024, 1048576) + "bytes");
-        context.put("file_type", RandomDataGenerator.getRandomFileType());
+        context.put("file_type", RandomDataGenerator.getRandomFileType(random));
         context.put("processing_time", random.nextInt(100, 5000) + "ms");
         break;
 
@@ -120,10 +271,10 @@ public class SyntheticLogGeneratorService {
     }
 
     context.put("entry_id", entryCounter.get());
-    context.put("service_version", RandomDataGenerator.generateServiceVersion());
-    context.put("environment", RandomDataGenerator.generateEnvironment());
-    context.put("datacenter", RandomDataGenerator.generateDatacenter());
-    context.put("instance_id", RandomDataGenerator.generateInstanceId());
+    context.put("service_version", RandomDataGenerator.generateServiceVersion(random));
+    context.put("environment", RandomDataGenerator.generateEnvironment(random));
+    context.put("datacenter", RandomDataGenerator.generateDatacenter(random));
+    context.put("instance_id", RandomDataGenerator.generateInstanceId(random));
 
     return context;
   }
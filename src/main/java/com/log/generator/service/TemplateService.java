@@ -0,0 +1,115 @@
+package com.log.generator.service;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.template.LogTemplate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class TemplateService {
+
+  private static final String LOG_PREFIX = "[SVC-TEMPLATE]:";
+  private static final LogScenario[] SCENARIOS = LogScenario.values();
+  private static final LogLevel[] LEVELS = LogLevel.values();
+
+  private final TemplatePool[] pools;
+
+  public TemplateService(GeneratorOptions generatorOptions) {
+    int poolSize = Math.max(1, generatorOptions.getTemplates().getPoolSize());
+    this.pools = new TemplatePool[SCENARIOS.length * LEVELS.length];
+    for (int i = 0; i < pools.length; i++) {
+      pools[i] = new TemplatePool(poolSize);
+    }
+  }
+
+  public void harvest(LogScenario scenario, LogLevel requestedLevel,
+      StructuredLogResponse response) {
+    if (response == null || response.getMessage() == null || response.getMessage().isBlank()) {
+      return;
+    }
+    LogTemplate template = LogTemplate.from(response, requestedLevel);
+    TemplatePool pool = pools[index(scenario, template.level())];
+    pool.add(template);
+
+    log.debug("{} Template harvested scenario={} level={} slots={} pool_size={}", LOG_PREFIX,
+        scenario.name(), template.level(), template.message().slots().length, pool.size());
+  }
+
+  public Optional<StructuredLogResponse> render(LogScenario scenario, LogLevel level,
+      RandomGenerator random) {
+    LogTemplate template = pools[index(scenario, level)].pick(random);
+    return template != null ? Optional.of(template.render(random)) : Optional.empty();
+  }
+
+  public boolean hasTemplates() {
+    for (TemplatePool pool : pools) {
+      if (pool.size() > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int poolSize(LogScenario scenario, LogLevel level) {
+    return pools[index(scenario, level)].size();
+  }
+
+  public List<Map.Entry<LogScenario, LogLevel>> leastPopulated(int limit) {
+    List<Map.Entry<LogScenario, LogLevel>> keys = new ArrayList<>(pools.length);
+    for (LogScenario scenario : SCENARIOS) {
+      for (LogLevel level : LEVELS) {
+        keys.add(Map.entry(scenario, level));
+      }
+    }
+    keys.sort(Comparator.comparingLong(key -> pools[index(key.getKey(), key.getValue())]
+        .harvested()));
+    return keys.subList(0, Math.min(limit, keys.size()));
+  }
+
+  private static int index(LogScenario scenario, LogLevel level) {
+    return scenario.ordinal() * LEVELS.length + level.ordinal();
+  }
+
+  private static final class TemplatePool {
+
+    private final AtomicReferenceArray<LogTemplate> slots;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private TemplatePool(int capacity) {
+      this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    private void add(LogTemplate template) {
+      int slot = (int) (cursor.getAndIncrement() % slots.length());
+      slots.set(slot, template);
+    }
+
+    private LogTemplate pick(RandomGenerator random) {
+      int size = size();
+      if (size == 0) {
+        return null;
+      }
+      return slots.get(random.nextInt(size));
+    }
+
+    private int size() {
+      return (int) Math.min(cursor.get(), slots.length());
+    }
+
+    private long harvested() {
+      return cursor.get();
+    }
+  }
+}
@@ -0,0 +1,256 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends JSON lines to the synthetic log file without going through Logback. Producers copy
+ * encoded lines into a shared buffer taken from a fixed pool; a writer thread drains filled
+ * buffers with gathering {@link FileChannel} writes and rolls the file by size and date, gzipping
+ * archives in the background through {@link LogArchives}. A roll that fails keeps appending to
+ * the current file and is retried with the next batch.
+ */
+@Slf4j
+public class JsonFileLogSink implements LogSink, AutoCloseable {
+
+  private static final String LOG_PREFIX = "[SINK-FILE]:";
+  private static final String WRITER_THREAD = "SYN-LOG-SINK";
+
+  private final JsonLineEncoder encoder;
+  private final Path file;
+  private final LogArchives archives;
+  private final long maxFileSize;
+  private final long flushIntervalNanos;
+
+  private final BlockingQueue<ByteBuffer> free;
+  private final BlockingQueue<ByteBuffer> filled;
+  private final ByteBuffer[] gather;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Thread writer;
+
+  private final Counter lines;
+  private final Counter bytes;
+  private final Counter rollovers;
+  private final Counter rollFailures;
+
+  private ByteBuffer active;
+  private volatile boolean running = true;
+
+  private FileChannel channel;
+  private LocalDate fileDate;
+  private long fileSize;
+
+  public JsonFileLogSink(JsonLineEncoder encoder, PipelineOptions.Sink options,
+      MeterRegistry meterRegistry) throws IOException {
+    this.encoder = encoder;
+    this.file = Path.of(options.getFile()).toAbsolutePath();
+    this.archives = new LogArchives(file, options.getMaxHistory(), options.isCompress(),
+        options.getCompressionThreads());
+    this.maxFileSize = options.getMaxFileSize().toBytes();
+    this.flushIntervalNanos = options.getFlushInterval().toNanos();
+
+    int bufferSize = (int) options.getBufferSize().toBytes();
+    int buffers = Math.max(2, options.getBuffers());
+    this.free = new ArrayBlockingQueue<>(buffers);
+    this.filled = new ArrayBlockingQueue<>(buffers);
+    this.gather = new ByteBuffer[buffers];
+    for (int i = 0; i < buffers; i++) {
+      free.add(ByteBuffer.allocateDirect(bufferSize));
+    }
+    this.active = free.poll();
+
+    this.lines = Counter.builder("sink.lines").tag("type", "file").register(meterRegistry);
+    this.bytes = Counter.builder("sink.bytes").tag("type", "file").baseUnit("bytes")
+        .register(meterRegistry);
+    this.rollovers = Counter.builder("sink.rollovers").tag("type", "file")
+        .register(meterRegistry);
+    this.rollFailures = Counter.builder("sink.roll.failures").tag("type", "file")
+        .description("Rolls whose file could not be archived or reopened")
+        .register(meterRegistry);
+    Gauge.builder("sink.buffers.free", free, BlockingQueue::size).tag("type", "file")
+        .register(meterRegistry);
+    Gauge.builder("sink.archives.pending", archives, LogArchives::pending).tag("type", "file")
+        .register(meterRegistry);
+
+    Files.createDirectories(file.getParent());
+    open();
+    this.writer = Thread.ofPlatform().name(WRITER_THREAD).daemon().start(this::drain);
+    log.info("{} Writing synthetic logs file={} buffers={} buffer_size={}", LOG_PREFIX, file,
+        buffers, bufferSize);
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario) {
+    try {
+      JsonLineEncoder.Line line = encoder.encode(entry, scenario);
+      append(line.bytes(), line.size());
+      lines.increment();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      log.error("{} Failed to output synthetic log entry", LOG_PREFIX, ex);
+    }
+  }
+
+  private void append(byte[] source, int length) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      // lines never span buffers, so every batch ends on a line boundary and rolls stay clean
+      if (active.remaining() < length) {
+        if (active.position() > 0) {
+          filled.put(active);
+          active = free.take();
+        }
+        if (active.remaining() < length) {
+          // queued like a filled buffer, in write mode: the writer flips it
+          filled.put(ByteBuffer.allocate(length).put(source, 0, length));
+          return;
+        }
+      }
+      active.put(source, 0, length);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void drain() {
+    List<ByteBuffer> batch = new ArrayList<>(gather.length);
+    while (running || !filled.isEmpty()) {
+      try {
+        ByteBuffer first = filled.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          swapActive();
+          continue;
+        }
+        batch.add(first);
+        filled.drainTo(batch, gather.length - 1);
+        writeBatch(batch);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception ex) {
+        log.error("{} Failed to write synthetic log batch", LOG_PREFIX, ex);
+      } finally {
+        recycle(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  private void recycle(List<ByteBuffer> batch) {
+    for (ByteBuffer buffer : batch) {
+      if (buffer.isDirect()) {
+        free.offer(buffer.clear());
+      }
+    }
+  }
+
+  private void swapActive() {
+    lock.lock();
+    try {
+      if (active.position() > 0) {
+        ByteBuffer next = free.poll();
+        if (next != null && filled.offer(active)) {
+          active = next;
+        } else if (next != null) {
+          free.offer(next);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void writeBatch(List<ByteBuffer> batch) throws IOException {
+    long length = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      gather[i] = batch.get(i).flip();
+      length += gather[i].remaining();
+    }
+    rollIfNeeded(length);
+
+    long remaining = length;
+    while (remaining > 0) {
+      remaining -= channel.write(gather, 0, batch.size());
+    }
+    fileSize += length;
+    bytes.increment(length);
+  }
+
+  private void rollIfNeeded(long incoming) throws IOException {
+    if (!channel.isOpen()) {
+      // the last roll archived the file but could not open the next one
+      reopen();
+    }
+    LocalDate today = LocalDate.now();
+    if (fileSize > 0 && (fileSize + incoming > maxFileSize || !today.equals(fileDate))) {
+      channel.close();
+      Path archive = archives.next(fileDate);
+      try {
+        Files.move(file, archive);
+        rollovers.increment();
+        archives.submit(archive, fileSize);
+      } catch (IOException ex) {
+        rollFailures.increment();
+        log.warn("{} Failed to roll file={}, appending to it until the next batch: {}",
+            LOG_PREFIX, file, ex.toString());
+      }
+      reopen();
+    }
+  }
+
+  private void reopen() throws IOException {
+    try {
+      open();
+    } catch (IOException ex) {
+      rollFailures.increment();
+      throw ex;
+    }
+  }
+
+  private void open() throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+    fileSize = channel.size();
+    fileDate = fileSize > 0
+        ? LocalDate.ofInstant(Files.getLastModifiedTime(file).toInstant(), ZoneId.systemDefault())
+        : LocalDate.now();
+  }
+
+  @Override
+  public void close() throws IOException, InterruptedException {
+    // no interrupt: it would close the channel under an in-progress write
+    running = false;
+    writer.join();
+    swapActive();
+    List<ByteBuffer> rest = new ArrayList<>(gather.length);
+    filled.drainTo(rest);
+    if (!rest.isEmpty()) {
+      writeBatch(rest);
+    }
+    if (channel.isOpen()) {
+      channel.force(false);
+      channel.close();
+    }
+    archives.close();
+  }
+}
@@ -0,0 +1,222 @@
+package com.log.generator.sink;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.utils.RandomDataGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Writes entries in the same JSON line layout as the {@code SYNTHETIC_FILE} appender, using one
+ * reusable generator and output buffer per thread instead of building logging events.
+ */
+public class JsonLineEncoder {
+
+  private static final SerializableString TIMESTAMP = new SerializedString("@timestamp");
+  private static final SerializableString LEVEL = new SerializedString("level");
+  private static final SerializableString LOGGER_NAME = new SerializedString("logger_name");
+  private static final SerializableString MESSAGE = new SerializedString("message");
+  private static final SerializableString USER_ID = new SerializedString("user_id");
+  private static final SerializableString TRANSACTION_ID = new SerializedString("transaction_id");
+  private static final SerializableString REQUEST_PATH = new SerializedString("request_path");
+  private static final SerializableString SERVICE_VERSION = new SerializedString("service_version");
+  private static final SerializableString DURATION_MS = new SerializedString("duration_ms");
+  private static final SerializableString SESSION_ID = new SerializedString("session_id");
+  private static final SerializableString RESPONSE_CODE = new SerializedString("response_code");
+  private static final SerializableString THREAD_ID = new SerializedString("thread_id");
+  private static final SerializableString ENVIRONMENT = new SerializedString("environment");
+  private static final SerializableString INSTANCE_ID = new SerializedString("instance_id");
+  private static final SerializableString REGION = new SerializedString("region");
+  private static final SerializableString CORRELATION_ID = new SerializedString("correlation_id");
+  private static final SerializableString SPAN_ID = new SerializedString("span_id");
+  private static final SerializableString PARENT_SPAN_ID = new SerializedString("parent_span_id");
+  private static final SerializableString METADATA = new SerializedString("metadata");
+  private static final SerializableString CONTEXT = new SerializedString("context");
+
+  private static final byte[] CORRELATION_PREFIX = {'c', 'o', 'r', 'r', '-'};
+  private static final int CORRELATION_RANDOM_LENGTH = 31;
+
+  private final JsonFactory jsonFactory;
+  private final ThreadLocal<Line> lines = ThreadLocal.withInitial(this::newLine);
+
+  public JsonLineEncoder(ObjectMapper objectMapper) {
+    this.jsonFactory = objectMapper.getFactory().copy()
+        .setRootValueSeparator(null)
+        .setCodec(objectMapper);
+  }
+
+  /**
+   * Encodes one newline-terminated line into the calling thread's buffer. The returned line is
+   * only valid until the next call on the same thread.
+   */
+  public Line encode(StructuredLogResponse entry, LogScenario scenario) throws IOException {
+    return encode(entry, scenario, Instant.now(), ThreadLocalRandom.current());
+  }
+
+  /**
+   * Encodes with an explicit timestamp and the random source for the generated ids, for output
+   * that has to be reproducible.
+   */
+  public Line encode(StructuredLogResponse entry, LogScenario scenario, Instant timestamp,
+      RandomGenerator random) throws IOException {
+    Line line = lines.get();
+    line.reset();
+    try {
+      writeEntry(line.generator, line.scratch, entry, scenario, timestamp, random);
+      line.generator.flush();
+    } catch (IOException | RuntimeException ex) {
+      line.generator = createGenerator(line);
+      throw ex;
+    }
+    line.write('\n');
+    return line;
+  }
+
+  private void writeEntry(JsonGenerator generator, byte[] scratch, StructuredLogResponse entry,
+      LogScenario scenario, Instant timestamp, RandomGenerator random) throws IOException {
+    generator.writeStartObject();
+    generator.writeFieldName(TIMESTAMP);
+    generator.writeString(timestamp.toString());
+    generator.writeFieldName(LEVEL);
+    generator.writeString(entry.getLevel().name());
+    generator.writeFieldName(LOGGER_NAME);
+    generator.writeString(SyntheticLoggers.name(scenario));
+    generator.writeFieldName(MESSAGE);
+    generator.writeString(formatMessage(entry));
+
+    writeString(generator, USER_ID, entry.getUserId());
+    generator.writeFieldName(TRANSACTION_ID);
+    if (entry.getTransactionId() != null) {
+      generator.writeString(entry.getTransactionId());
+    } else {
+      generator.writeUTF8String(scratch, 0, RandomDataGenerator.writeRequestId(scratch, 0, random));
+    }
+    writeString(generator, REQUEST_PATH, entry.getRequestPath());
+    writeString(generator, SERVICE_VERSION, entry.getServiceVersion());
+    writeNumber(generator, DURATION_MS, entry.getDurationMs());
+    writeString(generator, SESSION_ID, entry.getSessionId());
+    writeNumber(generator, RESPONSE_CODE, entry.getResponseCode());
+    writeString(generator, THREAD_ID, entry.getThreadId());
+    writeString(generator, ENVIRONMENT, entry.getEnvironment());
+    writeString(generator, INSTANCE_ID, entry.getInstanceId());
+    writeString(generator, REGION, entry.getRegion());
+
+    generator.writeFieldName(CORRELATION_ID);
+    if (entry.getCorrelationId() != null) {
+      generator.writeString(entry.getCorrelationId());
+    } else {
+      System.arraycopy(CORRELATION_PREFIX, 0, scratch, 0, CORRELATION_PREFIX.length);
+      int length = RandomDataGenerator.writeRandomId(scratch, CORRELATION_PREFIX.length,
+          CORRELATION_RANDOM_LENGTH, random);
+      generator.writeUTF8String(scratch, 0, length);
+    }
+    writeString(generator, SPAN_ID, entry.getSpanId());
+    writeString(generator, PARENT_SPAN_ID, entry.getParentSpanId());
+
+    generator.writeFieldName(METADATA);
+    Map<String, Object> metadata = entry.getMetadata();
+    if (metadata != null && !metadata.isEmpty()) {
+      generator.writeObject(metadata);
+    } else {
+      generator.writeStartObject();
+      generator.writeFieldName(CONTEXT);
+      generator.writeString("generated");
+      generator.writeEndObject();
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * The {@code message} field as written to the synthetic log, with the stack trace appended to
+   * errors.
+   */
+  public static String formatMessage(StructuredLogResponse entry) {
+    String stackTrace = entry.getStackTrace();
+    if (entry.getLevel() == LogLevel.ERROR && stackTrace != null
+        && !stackTrace.trim().isEmpty()) {
+      return entry.getMessage() + " Stack trace: " + stackTrace;
+    }
+    return entry.getMessage();
+  }
+
+  private static void writeString(JsonGenerator generator, SerializableString name, String value)
+      throws IOException {
+    if (value != null) {
+      generator.writeFieldName(name);
+      generator.writeString(value);
+    }
+  }
+
+  private static void writeNumber(JsonGenerator generator, SerializableString name, Integer value)
+      throws IOException {
+    if (value != null) {
+      generator.writeFieldName(name);
+      generator.writeNumber(value);
+    }
+  }
+
+  private Line newLine() {
+    Line line = new Line();
+    line.generator = createGenerator(line);
+    return line;
+  }
+
+  private JsonGenerator createGenerator(Line line) {
+    try {
+      return jsonFactory.createGenerator(line);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public static final class Line extends OutputStream {
+
+    private final byte[] scratch = new byte[64];
+    private JsonGenerator generator;
+    private byte[] bytes = new byte[1024];
+    private int size;
+
+    @Override
+    public void write(int b) {
+      ensureCapacity(size + 1);
+      bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] source, int offset, int length) {
+      ensureCapacity(size + length);
+      System.arraycopy(source, offset, bytes, size, length);
+      size += length;
+    }
+
+    public byte[] bytes() {
+      return bytes;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    private void reset() {
+      size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length << 1));
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.log.generator.sink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Naming, background compression and retention of rolled files, following the
+ * {@code <stem>.<date>.<index><ext>.gz} layout of the Logback rolling policy.
+ */
+@Slf4j
+final class LogArchives implements AutoCloseable {
+
+  private static final String LOG_PREFIX = "[SINK-ARCHIVE]:";
+  private static final String COMPRESS_THREAD = "SYN-LOG-SINK-GZIP";
+  private static final String SUFFIX = ".gz";
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private final Path file;
+  private final String stem;
+  private final String extension;
+  private final int maxHistory;
+  private final boolean compress;
+  private final ExecutorService compressor;
+  private final AtomicInteger pending = new AtomicInteger();
+
+  private LocalDate lastDate;
+  private int lastIndex;
+
+  LogArchives(Path file, int maxHistory, boolean compress, int threads) {
+    this.file = file;
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    this.stem = dot > 0 ? name.substring(0, dot) : name;
+    this.extension = dot > 0 ? name.substring(dot) : "";
+    this.maxHistory = maxHistory;
+    this.compress = compress;
+    this.compressor = Executors.newFixedThreadPool(Math.max(1, threads),
+        Thread.ofPlatform().name(COMPRESS_THREAD + "-", 0).daemon().factory());
+  }
+
+  synchronized Path next(LocalDate date) {
+    int index = date.equals(lastDate) ? lastIndex + 1 : 0;
+    for (; ; index++) {
+      Path archive = file.resolveSibling(stem + "." + date + "." + index + extension);
+      if (!Files.exists(archive) && !Files.exists(gzipPath(archive))) {
+        lastDate = date;
+        lastIndex = index;
+        return archive;
+      }
+    }
+  }
+
+  /**
+   * Queues the first {@code length} bytes of {@code archive} for compression. Without compression
+   * the file is only cut to that length.
+   */
+  void submit(Path archive, long length) {
+    pending.incrementAndGet();
+    compressor.execute(() -> {
+      try {
+        if (compress) {
+          compress(archive, length);
+        } else {
+          truncate(archive, length);
+        }
+        purge();
+      } catch (IOException ex) {
+        log.error("{} Failed to archive file={}", LOG_PREFIX, archive, ex);
+      } finally {
+        pending.decrementAndGet();
+      }
+    });
+  }
+
+  int pending() {
+    return pending.get();
+  }
+
+  private void compress(Path archive, long length) throws IOException {
+    byte[] buffer = new byte[COPY_BUFFER_SIZE];
+    try (InputStream in = Files.newInputStream(archive);
+        OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath(archive)),
+            COPY_BUFFER_SIZE)) {
+      long remaining = length;
+      while (remaining > 0) {
+        int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        if (read < 0) {
+          break;
+        }
+        out.write(buffer, 0, read);
+        remaining -= read;
+      }
+    }
+    Files.delete(archive);
+  }
+
+  private void truncate(Path archive, long length) throws IOException {
+    try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.WRITE)) {
+      channel.truncate(length);
+    }
+  }
+
+  private void purge() throws IOException {
+    LocalDate cutoff = LocalDate.now().minusDays(maxHistory);
+    String glob = stem + ".*" + extension + "*";
+    try (DirectoryStream<Path> archives = Files.newDirectoryStream(file.getParent(), glob)) {
+      for (Path archive : archives) {
+        String name = archive.getFileName().toString();
+        int start = stem.length() + 1;
+        int end = name.indexOf('.', start);
+        try {
+          if (end > start && LocalDate.parse(name.substring(start, end)).isBefore(cutoff)) {
+            Files.deleteIfExists(archive);
+          }
+        } catch (DateTimeParseException _) {
+          // not one of ours
+        }
+      }
+    }
+  }
+
+  private Path gzipPath(Path archive) {
+    return archive.resolveSibling(archive.getFileName() + SUFFIX);
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    compressor.shutdown();
+    if (!compressor.awaitTermination(60, TimeUnit.SECONDS)) {
+      log.warn("{} Archives still pending at shutdown count={}", LOG_PREFIX, pending.get());
+    }
+  }
+}
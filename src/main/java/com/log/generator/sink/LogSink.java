@@ -0,0 +1,9 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+
+public interface LogSink {
+
+  void write(StructuredLogResponse entry, LogScenario scenario);
+}
@@ -0,0 +1,90 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.utils.RandomDataGenerator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import net.logstash.logback.argument.StructuredArgument;
+import net.logstash.logback.argument.StructuredArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes entries through the {@code com.synthetic.*} loggers and the {@code SYNTHETIC_FILE}
+ * appender from logback-spring.xml.
+ */
+@Slf4j
+public class LogbackLogSink implements LogSink {
+
+  private static final StructuredArgument DEFAULT_METADATA =
+      StructuredArguments.keyValue("metadata", Map.of("context", "generated"));
+
+  private final Map<LogScenario, Logger> loggers = new EnumMap<>(LogScenario.class);
+
+  public LogbackLogSink() {
+    for (LogScenario scenario : LogScenario.values()) {
+      loggers.put(scenario, LoggerFactory.getLogger(SyntheticLoggers.name(scenario)));
+    }
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario) {
+    try {
+      Logger syntheticLogger = loggers.get(scenario);
+
+      var syntheticMetadata = getStructuredArgument(entry);
+      var metadata = entry.getMetadata() != null && !entry.getMetadata().isEmpty()
+          ? StructuredArguments.keyValue("metadata", entry.getMetadata())
+          : DEFAULT_METADATA;
+
+      switch (entry.getLevel()) {
+        case TRACE -> syntheticLogger.trace(entry.getMessage(), syntheticMetadata, metadata);
+        case DEBUG -> syntheticLogger.debug(entry.getMessage(), syntheticMetadata, metadata);
+        case INFO -> syntheticLogger.info(entry.getMessage(), syntheticMetadata, metadata);
+        case WARN -> syntheticLogger.warn(entry.getMessage(), syntheticMetadata, metadata);
+        case ERROR -> {
+          if (entry.getStackTrace() != null && !entry.getStackTrace().trim().isEmpty()) {
+            syntheticLogger.error("{} Stack trace: {}", entry.getMessage(), entry.getStackTrace(),
+                syntheticMetadata, metadata);
+          } else {
+            syntheticLogger.error(entry.getMessage(), syntheticMetadata, metadata);
+          }
+        }
+      }
+
+    } catch (Exception e) {
+      log.error("Failed to output synthetic log entry", e);
+    }
+  }
+
+  public static StructuredArgument getStructuredArgument(StructuredLogResponse entry) {
+    String transactionId = entry.getTransactionId() != null
+        ? entry.getTransactionId()
+        : RandomDataGenerator.generateRequestId();
+    String correlationId = entry.getCorrelationId() != null
+        ? entry.getCorrelationId()
+        : "corr-" + RandomDataGenerator.generateRandomId(31);
+
+    Map<String, Object> fields = new HashMap<>(16);
+    fields.put("user_id", entry.getUserId());
+    fields.put("transaction_id", transactionId);
+    fields.put("request_path", entry.getRequestPath());
+    fields.put("service_version", entry.getServiceVersion());
+    fields.put("duration_ms", entry.getDurationMs());
+    fields.put("session_id", entry.getSessionId());
+    fields.put("response_code", entry.getResponseCode());
+    fields.put("thread_id", entry.getThreadId());
+    fields.put("environment", entry.getEnvironment());
+    fields.put("instance_id", entry.getInstanceId());
+    fields.put("region", entry.getRegion());
+    fields.put("correlation_id", correlationId);
+    fields.put("span_id", entry.getSpanId());
+    fields.put("parent_span_id", entry.getParentSpanId());
+    fields.values().removeIf(Objects::isNull);
+    return StructuredArguments.entries(fields);
+  }
+}
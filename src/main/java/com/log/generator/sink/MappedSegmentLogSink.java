@@ -0,0 +1,264 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends JSON lines into pre-allocated, memory-mapped segment files. Producers reserve space with
+ * a fetch-and-add on the segment position and copy their line in place. The producer whose
+ * reservation crosses the end of a segment seals it and swaps in the next one, which a background
+ * thread has already mapped and faulted in. Sealed segments are cut to their written length and
+ * compressed once every reservation below the seal has been copied. When no next segment can be
+ * mapped, lines are dropped and counted until a background retry maps one.
+ */
+@Slf4j
+public class MappedSegmentLogSink implements LogSink, AutoCloseable {
+
+  private static final String LOG_PREFIX = "[SINK-MAPPED]:";
+  private static final String MAINTENANCE_THREAD = "SYN-LOG-SINK-MAP";
+  private static final int PAGE_SIZE = 4096;
+  private static final int SPIN_LIMIT = 1_000;
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final long RETRY_DELAY_MS = 1_000;
+
+  private final JsonLineEncoder encoder;
+  private final LogArchives archives;
+  private final int segmentSize;
+  private final ExecutorService maintenance;
+
+  private final Counter lines;
+  private final Counter bytes;
+  private final Counter rollovers;
+  private final Counter oversized;
+  private final Counter unavailable;
+  private final Counter rollFailures;
+
+  private volatile Segment current;
+  private CompletableFuture<Segment> spare;
+  private boolean closed;
+
+  public MappedSegmentLogSink(JsonLineEncoder encoder, PipelineOptions.Sink options,
+      MeterRegistry meterRegistry) throws IOException {
+    Path file = Path.of(options.getFile()).toAbsolutePath();
+    Files.createDirectories(file.getParent());
+
+    this.encoder = encoder;
+    this.archives = new LogArchives(file, options.getMaxHistory(), options.isCompress(),
+        options.getCompressionThreads());
+    this.segmentSize = (int) Math.min(options.getSegmentSize().toBytes(), Integer.MAX_VALUE);
+    this.maintenance = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name(MAINTENANCE_THREAD).daemon().factory());
+
+    this.lines = Counter.builder("sink.lines").tag("type", "mapped").register(meterRegistry);
+    this.bytes = Counter.builder("sink.bytes").tag("type", "mapped").baseUnit("bytes")
+        .register(meterRegistry);
+    this.rollovers = Counter.builder("sink.rollovers").tag("type", "mapped")
+        .register(meterRegistry);
+    this.oversized = Counter.builder("sink.dropped").tag("type", "mapped")
+        .tag("reason", "oversized")
+        .description("Lines not written, larger than a segment or with no segment mapped")
+        .register(meterRegistry);
+    this.unavailable = Counter.builder("sink.dropped").tag("type", "mapped")
+        .tag("reason", "unavailable")
+        .description("Lines not written, larger than a segment or with no segment mapped")
+        .register(meterRegistry);
+    this.rollFailures = Counter.builder("sink.roll.failures").tag("type", "mapped")
+        .description("Segments that could not be mapped")
+        .register(meterRegistry);
+    Gauge.builder("sink.archives.pending", archives, LogArchives::pending).tag("type", "mapped")
+        .register(meterRegistry);
+
+    this.current = allocate();
+    this.spare = CompletableFuture.supplyAsync(this::allocate, maintenance);
+    log.info("{} Writing synthetic logs segment={} segment_size={}", LOG_PREFIX,
+        current.path, segmentSize);
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario) {
+    try {
+      JsonLineEncoder.Line line = encoder.encode(entry, scenario);
+      append(line.bytes(), line.size());
+    } catch (Exception ex) {
+      log.error("{} Failed to output synthetic log entry", LOG_PREFIX, ex);
+    }
+  }
+
+  void append(byte[] source, int length) {
+    if (length > segmentSize) {
+      oversized.increment();
+      return;
+    }
+
+    Segment segment;
+    while ((segment = current) != null || (segment = resume()) != null) {
+      long offset = segment.reserved.getAndAdd(length);
+      if (offset + length <= segmentSize) {
+        segment.buffer.put((int) offset, source, 0, length);
+        segment.written.addAndGet(length);
+        lines.increment();
+        bytes.increment(length);
+        return;
+      }
+      if (offset <= segmentSize) {
+        // exactly one reservation straddles the end; its offset is where the data stops
+        segment.end = offset;
+        roll(segment);
+      } else {
+        Segment full = segment;
+        await(() -> current != full);
+      }
+    }
+    unavailable.increment();
+  }
+
+  private synchronized void roll(Segment segment) {
+    if (current != segment) {
+      return;
+    }
+    current = next();
+    maintenance.execute(() -> retire(segment));
+    if (current != null) {
+      rollovers.increment();
+    }
+  }
+
+  /**
+   * Swaps in the segment of a background retry once it is mapped; null while none is.
+   */
+  private synchronized Segment resume() {
+    if (current == null && !closed && spare.isDone()) {
+      current = next();
+      if (current != null) {
+        log.info("{} Next segment mapped, output resumed segment={}", LOG_PREFIX, current.path);
+      }
+    }
+    return current;
+  }
+
+  /**
+   * The spare segment, or a fresh one when mapping the spare failed. When that fails too, the
+   * failure is counted and another attempt is scheduled after {@link #RETRY_DELAY_MS}.
+   */
+  private Segment next() {
+    Segment next;
+    try {
+      next = spare.join();
+    } catch (CompletionException ex) {
+      log.warn("{} Failed to map spare segment, retrying: {}", LOG_PREFIX,
+          ex.getCause().toString());
+      rollFailures.increment();
+      try {
+        next = allocate();
+      } catch (UncheckedIOException retry) {
+        rollFailures.increment();
+        log.error("{} Failed to map next segment, dropping lines until one is mapped",
+            LOG_PREFIX, retry.getCause());
+        spare = CompletableFuture.supplyAsync(this::allocate, CompletableFuture.delayedExecutor(
+            RETRY_DELAY_MS, TimeUnit.MILLISECONDS, maintenance));
+        return null;
+      }
+    }
+    spare = CompletableFuture.supplyAsync(this::allocate, maintenance);
+    return next;
+  }
+
+  private Segment allocate() {
+    Path path = archives.next(LocalDate.now());
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      // touch every page so producers never take the fault on the write path
+      for (int position = 0; position < segmentSize; position += PAGE_SIZE) {
+        buffer.put(position, (byte) 0);
+      }
+      return new Segment(path, buffer);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void retire(Segment segment) {
+    while (segment.written.get() < segment.end) {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+    }
+    archives.submit(segment.path, segment.end);
+  }
+
+  /**
+   * Waits for a condition another producer settles within a few instructions, or within a roll
+   * when the next segment is still being mapped: spins briefly, then parks.
+   */
+  private static void await(BooleanSupplier condition) {
+    for (int spins = 0; !condition.getAsBoolean(); spins++) {
+      if (spins < SPIN_LIMIT) {
+        Thread.onSpinWait();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException, InterruptedException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    Segment segment = current;
+    if (segment != null) {
+      long offset = segment.reserved.getAndAdd(segmentSize + 1L);
+      if (offset <= segmentSize) {
+        segment.end = offset;
+      }
+      await(() -> segment.end >= 0);
+      current = null;
+
+      retire(segment);
+      segment.buffer.force();
+    }
+    maintenance.shutdown();
+    maintenance.awaitTermination(10, TimeUnit.SECONDS);
+    // a delayed retry never runs on the stopped executor
+    spare.cancel(false);
+    if (!spare.isCompletedExceptionally()) {
+      Files.deleteIfExists(spare.join().path);
+    }
+    archives.close();
+  }
+
+  private static final class Segment {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile long end = -1;
+
+    private Segment(Path path, MappedByteBuffer buffer) {
+      this.path = path;
+      this.buffer = buffer;
+    }
+  }
+}
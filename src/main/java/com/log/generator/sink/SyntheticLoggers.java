@@ -0,0 +1,43 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public final class SyntheticLoggers {
+
+  private static final Map<LogScenario, String> NAMES = new EnumMap<>(LogScenario.class);
+  private static final Map<String, LogScenario> SCENARIOS = new HashMap<>();
+
+  static {
+    for (LogScenario scenario : LogScenario.values()) {
+      String className = switch (scenario) {
+        case USER_LOGIN -> "UserAuthenticationService";
+        case DATABASE_OPERATION -> "DatabaseService";
+        case API_REQUEST -> "ApiController";
+        case ERROR_HANDLING -> "ErrorHandlerService";
+        case SECURITY_EVENT -> "SecurityService";
+        case PERFORMANCE_METRIC -> "PerformanceMonitorService";
+        case FILE_OPERATION -> "FileProcessorService";
+        case BUSINESS_LOGIC -> "BusinessLogicService";
+        case SYSTEM_STARTUP -> "ApplicationStartupService";
+        case CACHE_OPERATION -> "CacheService";
+      };
+      NAMES.put(scenario, "com.synthetic." + className);
+      SCENARIOS.put("com.synthetic." + className, scenario);
+    }
+  }
+
+  private SyntheticLoggers() {
+  }
+
+  public static String name(LogScenario scenario) {
+    return NAMES.get(scenario);
+  }
+
+  public static Optional<LogScenario> scenario(String loggerName) {
+    return Optional.ofNullable(loggerName).map(SCENARIOS::get);
+  }
+}
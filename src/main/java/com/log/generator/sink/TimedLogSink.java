@@ -0,0 +1,43 @@
+package com.log.generator.sink;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every write of the wrapped sink as {@code sink.write}, tagged by sink {@code type}. Behind
+ * the ring buffer this is the consumer's encode and I/O time, not the producer's publish.
+ */
+public class TimedLogSink implements LogSink, AutoCloseable {
+
+  private final LogSink delegate;
+  private final Timer writes;
+
+  public TimedLogSink(LogSink delegate, String type, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.writes = Timer.builder("sink.write")
+        .description("Time to encode and write one line")
+        .tag("type", type)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void write(StructuredLogResponse entry, LogScenario scenario) {
+    long start = System.nanoTime();
+    try {
+      delegate.write(entry, scenario);
+    } finally {
+      writes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
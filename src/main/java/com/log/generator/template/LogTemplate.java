@@ -0,0 +1,85 @@
+package com.log.generator.template;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.StructuredLogResponse;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public record LogTemplate(
+    LogLevel level,
+    TextTemplate message,
+    TextTemplate userId,
+    TextTemplate requestPath,
+    TextTemplate sessionId,
+    TextTemplate threadId,
+    TextTemplate instanceId,
+    TextTemplate stackTrace,
+    String serviceVersion,
+    String environment,
+    String region,
+    Integer durationMs,
+    Integer responseCode,
+    Map<String, Object> metadata
+) {
+
+  public static LogTemplate from(StructuredLogResponse exemplar, LogLevel fallbackLevel) {
+    return new LogTemplate(
+        exemplar.getLevel() != null ? exemplar.getLevel() : fallbackLevel,
+        TemplateCompiler.compile(exemplar.getMessage()),
+        compileNullable(exemplar.getUserId()),
+        compileNullable(exemplar.getRequestPath()),
+        compileNullable(exemplar.getSessionId()),
+        compileNullable(exemplar.getThreadId()),
+        compileNullable(exemplar.getInstanceId()),
+        compileNullable(exemplar.getStackTrace()),
+        exemplar.getServiceVersion(),
+        exemplar.getEnvironment(),
+        exemplar.getRegion(),
+        exemplar.getDurationMs(),
+        exemplar.getResponseCode(),
+        exemplar.getMetadata() != null
+            ? Collections.unmodifiableMap(exemplar.getMetadata())
+            : null
+    );
+  }
+
+  public StructuredLogResponse render() {
+    return render(ThreadLocalRandom.current());
+  }
+
+  public StructuredLogResponse render(RandomGenerator random) {
+    return StructuredLogResponse.builder()
+        .message(message.render(random))
+        .level(level)
+        .userId(renderNullable(userId, random))
+        .requestPath(renderNullable(requestPath, random))
+        .serviceVersion(serviceVersion)
+        .durationMs(jitter(durationMs, random))
+        .sessionId(renderNullable(sessionId, random))
+        .responseCode(responseCode)
+        .threadId(renderNullable(threadId, random))
+        .environment(environment)
+        .instanceId(renderNullable(instanceId, random))
+        .region(region)
+        .metadata(metadata)
+        .stackTrace(renderNullable(stackTrace, random))
+        .build();
+  }
+
+  private static TextTemplate compileNullable(String value) {
+    return value != null ? TemplateCompiler.compile(value) : null;
+  }
+
+  private static String renderNullable(TextTemplate template, RandomGenerator random) {
+    return template != null ? template.render(random) : null;
+  }
+
+  private static Integer jitter(Integer value, RandomGenerator random) {
+    if (value == null || value <= 1) {
+      return value;
+    }
+    return random.nextInt(Math.max(1, value / 2), value * 2);
+  }
+}
@@ -0,0 +1,44 @@
+package com.log.generator.template;
+
+import com.log.generator.utils.RandomDataGenerator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public record Slot(SlotType type, long sample, String suffix) {
+
+  private static final int[][] STATUS_CLASSES = {
+      {100, 101},
+      {200, 201, 202, 204},
+      {301, 302, 304},
+      {400, 401, 403, 404, 408, 409, 422, 429},
+      {500, 502, 503, 504}
+  };
+
+  public void render(StringBuilder target) {
+    render(target, ThreadLocalRandom.current());
+  }
+
+  public void render(StringBuilder target, RandomGenerator random) {
+    switch (type) {
+      case UUID -> RandomDataGenerator.appendRequestId(target, random);
+      case IP_ADDRESS -> RandomDataGenerator.appendRandomIP(target, random);
+      case DURATION, NUMBER -> target.append(around(random, sample)).append(suffix);
+      case HTTP_CODE -> {
+        int[] codes = STATUS_CLASSES[Math.clamp(sample / 100 - 1, 0, 4)];
+        target.append(codes[random.nextInt(codes.length)]);
+      }
+      case HEX_ID -> {
+        for (int i = 0; i < sample; i++) {
+          target.append(Character.forDigit(random.nextInt(16), 16));
+        }
+      }
+    }
+  }
+
+  private static long around(RandomGenerator random, long value) {
+    if (value < 10) {
+      return random.nextLong(0, value * 2 + 2);
+    }
+    return random.nextLong(value / 2, value * 2 + 1);
+  }
+}
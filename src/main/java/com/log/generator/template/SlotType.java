@@ -0,0 +1,10 @@
+package com.log.generator.template;
+
+public enum SlotType {
+    UUID,
+    IP_ADDRESS,
+    DURATION,
+    HTTP_CODE,
+    HEX_ID,
+    NUMBER
+}
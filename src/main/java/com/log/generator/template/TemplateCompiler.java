@@ -0,0 +1,75 @@
+package com.log.generator.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class TemplateCompiler {
+
+  private static final Pattern SLOTS = Pattern.compile(
+      "(?<uuid>\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b)"
+          + "|(?<ip>\\b(?:\\d{1,3}\\.){3}\\d{1,3}\\b)"
+          + "|(?<version>\\b\\d+\\.\\d+\\.\\d+\\b)"
+          + "|(?<duration>\\b(?<amount>\\d{1,9})(?<unit>\\s?(?:ms|milliseconds|s|sec|seconds)\\b))"
+          + "|(?<hex>\\b(?=[0-9a-fA-F]*\\d)(?=[0-9a-fA-F]*[a-fA-F])[0-9a-fA-F]{6,32}\\b)"
+          + "|(?<number>\\b\\d{1,9}\\b)");
+
+  private static final Pattern STATUS_HINT = Pattern.compile(
+      "(status|code|http|response)\\W{0,3}$", Pattern.CASE_INSENSITIVE);
+
+  private TemplateCompiler() {
+  }
+
+  public static TextTemplate compile(String text) {
+    if (text == null || text.isEmpty()) {
+      return TextTemplate.literal(text == null ? "" : text);
+    }
+
+    List<String> literals = new ArrayList<>();
+    List<Slot> slots = new ArrayList<>();
+    Matcher matcher = SLOTS.matcher(text);
+    int cursor = 0;
+
+    while (matcher.find()) {
+      Slot slot = toSlot(matcher, text);
+      if (slot == null) {
+        continue;
+      }
+      literals.add(text.substring(cursor, matcher.start()));
+      slots.add(slot);
+      cursor = matcher.end();
+    }
+    literals.add(text.substring(cursor));
+
+    return new TextTemplate(literals.toArray(String[]::new), slots.toArray(Slot[]::new));
+  }
+
+  private static Slot toSlot(Matcher matcher, String text) {
+    if (matcher.group("uuid") != null) {
+      return new Slot(SlotType.UUID, 0, "");
+    }
+    if (matcher.group("ip") != null) {
+      return new Slot(SlotType.IP_ADDRESS, 0, "");
+    }
+    if (matcher.group("version") != null) {
+      return null;
+    }
+    if (matcher.group("duration") != null) {
+      return new Slot(SlotType.DURATION, Long.parseLong(matcher.group("amount")),
+          matcher.group("unit"));
+    }
+    if (matcher.group("hex") != null) {
+      return new Slot(SlotType.HEX_ID, matcher.group("hex").length(), "");
+    }
+
+    long value = Long.parseLong(matcher.group("number"));
+    String preceding = text.substring(Math.max(0, matcher.start() - 12), matcher.start());
+    if (value >= 100 && value < 600 && STATUS_HINT.matcher(preceding.toLowerCase(Locale.ROOT))
+        .find()) {
+      return new Slot(SlotType.HTTP_CODE, value, "");
+    }
+    return new Slot(SlotType.NUMBER, value, "");
+  }
+}
@@ -0,0 +1,40 @@
+package com.log.generator.template;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+public record TextTemplate(String[] literals, Slot[] slots) {
+
+  public static TextTemplate literal(String text) {
+    return new TextTemplate(new String[]{text}, new Slot[0]);
+  }
+
+  public boolean hasSlots() {
+    return slots.length > 0;
+  }
+
+  public void render(StringBuilder target) {
+    render(target, ThreadLocalRandom.current());
+  }
+
+  public void render(StringBuilder target, RandomGenerator random) {
+    target.append(literals[0]);
+    for (int i = 0; i < slots.length; i++) {
+      slots[i].render(target, random);
+      target.append(literals[i + 1]);
+    }
+  }
+
+  public String render() {
+    return render(ThreadLocalRandom.current());
+  }
+
+  public String render(RandomGenerator random) {
+    if (!hasSlots()) {
+      return literals[0];
+    }
+    StringBuilder builder = new StringBuilder(literals[0].length() + slots.length * 12);
+    render(builder, random);
+    return builder.toString();
+  }
+}
@@ -0,0 +1,23 @@
+package com.log.generator.trace;
+
+import com.log.generator.utils.RandomDataGenerator;
+import java.util.SplittableRandom;
+
+/**
+ * Identity shared by every trace of a user session, derived from the session seed.
+ */
+public record Session(String userId, String sessionId, String correlationId) {
+
+  private static final int SESSION_ID_LENGTH = 6;
+  private static final int CORRELATION_RANDOM_LENGTH = 31;
+
+  static Session of(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    String userId = "user" + random.nextInt(1000, 100_000);
+    String sessionId = RandomDataGenerator.appendRandomId(new StringBuilder(11).append("sess-"),
+        SESSION_ID_LENGTH, random).toString();
+    String correlationId = RandomDataGenerator.appendRandomId(new StringBuilder(36)
+        .append("corr-"), CORRELATION_RANDOM_LENGTH, random).toString();
+    return new Session(userId, sessionId, correlationId);
+  }
+}
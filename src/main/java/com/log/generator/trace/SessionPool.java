@@ -0,0 +1,43 @@
+package com.log.generator.trace;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * A fixed number of concurrent sessions, each kept as a seed and a remaining request count (12
+ * bytes per session). A trace picks a random slot; when the slot's session has used up its
+ * requests a new session with a fresh seed takes its place.
+ */
+final class SessionPool {
+
+  private final AtomicLongArray seeds;
+  private final AtomicIntegerArray remaining;
+  private final int meanRequests;
+
+  SessionPool(int sessions, int meanRequests) {
+    this.seeds = new AtomicLongArray(sessions);
+    this.remaining = new AtomicIntegerArray(sessions);
+    this.meanRequests = Math.max(1, meanRequests);
+  }
+
+  Session next(RandomGenerator random) {
+    int slot = random.nextInt(seeds.length());
+    if (remaining.getAndDecrement(slot) > 0) {
+      return Session.of(seeds.get(slot));
+    }
+    long seed = random.nextLong();
+    seeds.set(slot, seed);
+    remaining.set(slot, requests(random) - 1);
+    return Session.of(seed);
+  }
+
+  int size() {
+    return seeds.length();
+  }
+
+  // exponentially distributed session length with the configured mean
+  private int requests(RandomGenerator random) {
+    return 1 + (int) (-Math.log(1.0 - random.nextDouble()) * (meanRequests - 1));
+  }
+}
@@ -0,0 +1,24 @@
+package com.log.generator.trace;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import java.util.List;
+
+/**
+ * One request through the service chain, with its spans in the order their lines are written:
+ * each span logs when it completes, so children come before their parents.
+ */
+public record TracePlan(Session session, String transactionId, String requestPath,
+                        int responseCode, List<Span> spans) {
+
+  public int size() {
+    return spans.size();
+  }
+
+  /**
+   * {@code seed} feeds the span's own random source, as spans are generated concurrently.
+   */
+  public record Span(LogScenario scenario, LogLevel level, String spanId, String parentSpanId,
+                     int durationMs, long seed) {
+  }
+}
@@ -0,0 +1,140 @@
+package com.log.generator.trace;
+
+import com.log.generator.model.GeneratedEntry;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.service.SyntheticLogGeneratorService;
+import com.log.generator.utils.RandomDataGenerator;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.UnaryOperator;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Synthesizes correlated request traces across the {@code ApiController},
+ * {@code BusinessLogicService}, {@code CacheService} and, on a cache miss,
+ * {@code DatabaseService} loggers. Lines of a trace share the transaction id and request path,
+ * lines of a session share the user, session and correlation ids, and every span's
+ * {@code duration_ms} covers its children. A failing leaf turns its ancestors into errors and the
+ * response into a 5xx.
+ */
+@Slf4j
+@Component
+public class TraceSynthesizer {
+
+  private static final String LOG_PREFIX = "[SVC-TRACE]:";
+  private static final String[] RESOURCES = {"orders", "users", "products", "payments", "carts"};
+  private static final int[] SUCCESS_CODES = {200, 200, 200, 201, 204};
+  private static final int[] FAILURE_CODES = {500, 502, 503, 504};
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final SyntheticLogGeneratorService logGenerator;
+  private final GeneratorOptions.Trace options;
+  private final SessionPool sessions;
+
+  public TraceSynthesizer(
+      SyntheticLogGeneratorService logGenerator,
+      GeneratorOptions generatorOptions
+  ) {
+    this.logGenerator = logGenerator;
+    this.options = generatorOptions.getTrace();
+    this.sessions = options.isEnabled()
+        ? new SessionPool(options.getSessions(), options.getRequestsPerSession())
+        : null;
+    if (sessions != null) {
+      log.info("{} Trace mode enabled sessions={} requests_per_session={}", LOG_PREFIX,
+          sessions.size(), options.getRequestsPerSession());
+    }
+  }
+
+  /**
+   * Lays out the next trace from {@code random}. Plans draw on the shared session pool, so a
+   * seeded run reproduces them only when they are made in unit order from one thread, as the
+   * pipeline and the fixed-rate bursts do.
+   */
+  public TracePlan plan(RandomGenerator random) {
+    if (sessions == null) {
+      throw new IllegalStateException("generator.trace is disabled");
+    }
+    Session session = sessions.next(random);
+    boolean cacheHit = random.nextDouble() < options.getCacheHitRatio();
+    boolean failed = random.nextDouble() < options.getErrorProbability();
+
+    String apiSpan = spanId(random);
+    String logicSpan = spanId(random);
+    int cacheMs = random.nextInt(1, 6);
+    int databaseMs = cacheHit ? 0 : failed ? random.nextInt(1000, 5001) : random.nextInt(5, 200);
+    int logicMs = cacheMs + databaseMs + random.nextInt(1, 20);
+    int apiMs = logicMs + random.nextInt(1, 10);
+
+    List<TracePlan.Span> spans = new ArrayList<>(4);
+    // INFO like its parents, so the default com.synthetic level does not drop a span of the trace
+    spans.add(new TracePlan.Span(LogScenario.CACHE_OPERATION,
+        failed && cacheHit ? LogLevel.ERROR : LogLevel.INFO, spanId(random), logicSpan,
+        cacheMs, random.nextLong()));
+    if (!cacheHit) {
+      spans.add(new TracePlan.Span(LogScenario.DATABASE_OPERATION,
+          failed ? LogLevel.ERROR : LogLevel.INFO, spanId(random), logicSpan, databaseMs,
+          random.nextLong()));
+    }
+    LogLevel outcome = failed ? LogLevel.ERROR : LogLevel.INFO;
+    spans.add(new TracePlan.Span(LogScenario.BUSINESS_LOGIC, outcome, logicSpan, apiSpan,
+        logicMs, random.nextLong()));
+    spans.add(new TracePlan.Span(LogScenario.API_REQUEST, outcome, apiSpan, null, apiMs,
+        random.nextLong()));
+
+    String transactionId = RandomDataGenerator.appendRequestId(new StringBuilder(36), random)
+        .toString();
+    String requestPath = "/api/" + RESOURCES[random.nextInt(RESOURCES.length)] + "/"
+        + random.nextInt(1, 100_000);
+    int[] codes = failed ? FAILURE_CODES : SUCCESS_CODES;
+    return new TracePlan(session, transactionId, requestPath, codes[random.nextInt(codes.length)],
+        spans);
+  }
+
+  /**
+   * Generates the span messages concurrently and emits the lines in plan order; the plan fixes
+   * every random draw, so a plan from a seeded source always yields the same lines.
+   */
+  public Flux<GeneratedEntry> generate(TracePlan plan,
+      UnaryOperator<Mono<StructuredLogResponse>> llmGuard) {
+    return Flux.fromIterable(plan.spans())
+        .flatMapSequential(span -> logGenerator.generateLogEntry(span.scenario(), span.level(),
+                new SplittableRandom(span.seed()), llmGuard)
+            .map(entry -> new GeneratedEntry(span.scenario(), apply(plan, span, entry))));
+  }
+
+  /**
+   * Applies the span to a copy: the generated entry may be shared, e.g. a response cache hit.
+   */
+  private static StructuredLogResponse apply(TracePlan plan, TracePlan.Span span,
+      StructuredLogResponse generated) {
+    StructuredLogResponse entry = generated.copy();
+    entry.setLevel(span.level());
+    entry.setDurationMs(span.durationMs());
+    entry.setResponseCode(plan.responseCode());
+    entry.setRequestPath(plan.requestPath());
+    entry.setUserId(plan.session().userId());
+    entry.setSessionId(plan.session().sessionId());
+    entry.setCorrelationId(plan.session().correlationId());
+    entry.setTransactionId(plan.transactionId());
+    entry.setSpanId(span.spanId());
+    entry.setParentSpanId(span.parentSpanId());
+    if (span.level() != LogLevel.ERROR) {
+      entry.setStackTrace(null);
+    }
+    return entry;
+  }
+
+  private static String spanId(RandomGenerator random) {
+    return HEX.toHexDigits(random.nextLong());
+  }
+}
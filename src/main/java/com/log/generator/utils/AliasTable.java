@@ -0,0 +1,83 @@
+package com.log.generator.utils;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker's alias method, built with Vose's linear-time construction: a discrete distribution
+ * sampled in constant time with one random draw, whatever the number of outcomes. Column
+ * {@code i} keeps outcome {@code i} with probability {@code probability[i]} and gives
+ * {@code alias[i]} otherwise.
+ */
+public record AliasTable(double[] probability, int[] alias) {
+
+    /**
+     * Table for outcomes proportional to {@code weights}, which must be finite, non-negative and
+     * not all zero.
+     */
+    public static AliasTable of(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (n == 0 || total <= 0) {
+            throw new IllegalArgumentException("weights must not all be zero");
+        }
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        int heaviest = 0;
+        for (int i = 0; i < n; i++) {
+            heaviest = weights[i] > weights[heaviest] ? i : heaviest;
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // what is left is 1 up to rounding; a zero weight must still never be picked
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = weights[index] > 0 ? 1.0 : 0.0;
+            alias[index] = heaviest;
+        }
+        return new AliasTable(probability, alias);
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        // the integer part picks the column, the fraction decides between it and its alias
+        double u = random.nextDouble() * probability.length;
+        int column = (int) u;
+        return u - column < probability[column] ? column : alias[column];
+    }
+}
@@ -1,76 +1,279 @@
 package com.log.generator.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public final class RandomDataGenerator {
 
+    private static final int[] STATUS_CODES = {200, 201, 400, 401, 403, 404, 500, 502, 503};
+    private static final String[] SEVERITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final String[] FILE_TYPES = {"PDF", "CSV", "JSON", "XML", "TXT", "LOG", "ZIP"};
+    private static final String[] ENVIRONMENTS = {"production", "staging"};
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] HEX_BYTES = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final char[] VARIANT = {'8', '9', 'a', 'b'};
+    private static final int UUID_LENGTH = 36;
+    private static final int[] UUID_NIBBLES = uuidNibbles();
+
+    private static final byte[] THREAD_PREFIX = ascii("thread-");
+    private static final byte[] INSTANCE_PREFIX = ascii("i-");
+    private static final byte[] DATACENTER_PREFIX = ascii("dc-");
+    private static final byte[] VERSION_PREFIX = ascii("2.1.");
+
     private RandomDataGenerator() {
     }
 
     public static String generateRandomIP() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return random.nextInt(1, 256)
-            + "."
-            + random.nextInt(0, 256)
-            + "."
-            + random.nextInt(0, 256)
-            + "."
-            + random.nextInt(1, 256);
+        return generateRandomIP(ThreadLocalRandom.current());
+    }
+
+    public static String generateRandomIP(RandomGenerator random) {
+        return appendRandomIP(new StringBuilder(15), random).toString();
+    }
+
+    public static StringBuilder appendRandomIP(StringBuilder target, RandomGenerator random) {
+        return target.append(random.nextInt(1, 256))
+            .append('.')
+            .append(random.nextInt(0, 256))
+            .append('.')
+            .append(random.nextInt(0, 256))
+            .append('.')
+            .append(random.nextInt(1, 256));
+    }
+
+    public static int writeRandomIP(byte[] target, int offset, RandomGenerator random) {
+        offset = writeInt(target, offset, random.nextInt(1, 256));
+        target[offset++] = '.';
+        offset = writeInt(target, offset, random.nextInt(0, 256));
+        target[offset++] = '.';
+        offset = writeInt(target, offset, random.nextInt(0, 256));
+        target[offset++] = '.';
+        return writeInt(target, offset, random.nextInt(1, 256));
     }
 
     public static int getRandomStatusCode() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        int[] statusCodes = {200, 201, 400, 401, 403, 404, 500, 502, 503};
-        return statusCodes[random.nextInt(statusCodes.length)];
+        return getRandomStatusCode(ThreadLocalRandom.current());
+    }
+
+    public static int getRandomStatusCode(RandomGenerator random) {
+        return STATUS_CODES[random.nextInt(STATUS_CODES.length)];
     }
 
     public static String getRandomSeverity() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        String[] severities = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
-        return severities[random.nextInt(severities.length)];
+        return getRandomSeverity(ThreadLocalRandom.current());
+    }
+
+    public static String getRandomSeverity(RandomGenerator random) {
+        return SEVERITIES[random.nextInt(SEVERITIES.length)];
     }
 
     public static String getRandomFileType() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        String[] fileTypes = {"PDF", "CSV", "JSON", "XML", "TXT", "LOG", "ZIP"};
-        return fileTypes[random.nextInt(fileTypes.length)];
+        return getRandomFileType(ThreadLocalRandom.current());
+    }
+
+    public static String getRandomFileType(RandomGenerator random) {
+        return FILE_TYPES[random.nextInt(FILE_TYPES.length)];
     }
 
     public static String generateRandomId(int length) {
-        return java.util.UUID.randomUUID().toString().substring(0, Math.min(length, 36));
+        int size = Math.min(length, UUID_LENGTH);
+        return appendRandomId(new StringBuilder(size), size, ThreadLocalRandom.current())
+            .toString();
+    }
+
+    /**
+     * Appends the first {@code length} characters of a random version 4 UUID.
+     */
+    public static StringBuilder appendRandomId(StringBuilder target, int length,
+        RandomGenerator random) {
+        long high = random.nextLong();
+        long low = random.nextLong();
+        int size = Math.min(length, UUID_LENGTH);
+        for (int i = 0; i < size; i++) {
+            target.append(uuidChar(i, high, low));
+        }
+        return target;
+    }
+
+    public static int writeRandomId(byte[] target, int offset, int length,
+        RandomGenerator random) {
+        long high = random.nextLong();
+        long low = random.nextLong();
+        int size = Math.min(length, UUID_LENGTH);
+        for (int i = 0; i < size; i++) {
+            target[offset++] = (byte) uuidChar(i, high, low);
+        }
+        return offset;
     }
 
     public static String generateRequestId() {
-        return generateRandomId(36);
+        return generateRequestId(ThreadLocalRandom.current());
+    }
+
+    public static String generateRequestId(RandomGenerator random) {
+        return appendRequestId(new StringBuilder(UUID_LENGTH), random).toString();
+    }
+
+    public static StringBuilder appendRequestId(StringBuilder target, RandomGenerator random) {
+        return appendRandomId(target, UUID_LENGTH, random);
+    }
+
+    public static int writeRequestId(byte[] target, int offset, RandomGenerator random) {
+        return writeRandomId(target, offset, UUID_LENGTH, random);
     }
 
     public static String generateThreadId() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return "thread-" + random.nextInt(1, 21);
+        return generateThreadId(ThreadLocalRandom.current());
+    }
+
+    public static String generateThreadId(RandomGenerator random) {
+        return appendThreadId(new StringBuilder(9), random).toString();
+    }
+
+    public static StringBuilder appendThreadId(StringBuilder target, RandomGenerator random) {
+        return target.append("thread-").append(random.nextInt(1, 21));
+    }
+
+    public static int writeThreadId(byte[] target, int offset, RandomGenerator random) {
+        offset = writeBytes(target, offset, THREAD_PREFIX);
+        return writeInt(target, offset, random.nextInt(1, 21));
     }
 
     public static String generateInstanceId() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return "i-" + Long.toHexString(random.nextLong()).substring(0, 8);
+        return generateInstanceId(ThreadLocalRandom.current());
+    }
+
+    public static String generateInstanceId(RandomGenerator random) {
+        return appendInstanceId(new StringBuilder(10), random).toString();
+    }
+
+    public static StringBuilder appendInstanceId(StringBuilder target, RandomGenerator random) {
+        int bits = random.nextInt();
+        target.append("i-");
+        for (int shift = 28; shift >= 0; shift -= 4) {
+            target.append(HEX[(bits >>> shift) & 0xF]);
+        }
+        return target;
+    }
+
+    public static int writeInstanceId(byte[] target, int offset, RandomGenerator random) {
+        int bits = random.nextInt();
+        offset = writeBytes(target, offset, INSTANCE_PREFIX);
+        for (int shift = 28; shift >= 0; shift -= 4) {
+            target[offset++] = HEX_BYTES[(bits >>> shift) & 0xF];
+        }
+        return offset;
     }
 
     public static String generateDatacenter() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return "dc-" + (char) ('a' + random.nextInt(0, 4));
+        return generateDatacenter(ThreadLocalRandom.current());
+    }
+
+    public static String generateDatacenter(RandomGenerator random) {
+        return appendDatacenter(new StringBuilder(4), random).toString();
+    }
+
+    public static StringBuilder appendDatacenter(StringBuilder target, RandomGenerator random) {
+        return target.append("dc-").append((char) ('a' + random.nextInt(0, 4)));
+    }
+
+    public static int writeDatacenter(byte[] target, int offset, RandomGenerator random) {
+        offset = writeBytes(target, offset, DATACENTER_PREFIX);
+        target[offset++] = (byte) ('a' + random.nextInt(0, 4));
+        return offset;
     }
 
     public static String generateServiceVersion() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return "2.1." + random.nextInt(0, 10);
+        return generateServiceVersion(ThreadLocalRandom.current());
+    }
+
+    public static String generateServiceVersion(RandomGenerator random) {
+        return appendServiceVersion(new StringBuilder(5), random).toString();
+    }
+
+    public static StringBuilder appendServiceVersion(StringBuilder target,
+        RandomGenerator random) {
+        return target.append("2.1.").append(random.nextInt(0, 10));
+    }
+
+    public static int writeServiceVersion(byte[] target, int offset, RandomGenerator random) {
+        offset = writeBytes(target, offset, VERSION_PREFIX);
+        target[offset++] = (byte) ('0' + random.nextInt(0, 10));
+        return offset;
     }
 
     public static String generateEnvironment() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        return random.nextBoolean() ? "production" : "staging";
+        return generateEnvironment(ThreadLocalRandom.current());
+    }
+
+    public static String generateEnvironment(RandomGenerator random) {
+        return ENVIRONMENTS[random.nextBoolean() ? 0 : 1];
     }
 
     public static int generatePort() {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return generatePort(ThreadLocalRandom.current());
+    }
+
+    public static int generatePort(RandomGenerator random) {
         return 8080 + random.nextInt(0, 100);
     }
+
+    public static int writeAscii(byte[] target, int offset, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            target[offset++] = (byte) value.charAt(i);
+        }
+        return offset;
+    }
+
+    public static int writeInt(byte[] target, int offset, int value) {
+        if (value < 0) {
+            target[offset++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int remaining = value / 10; remaining != 0; remaining /= 10) {
+            digits++;
+        }
+        int end = offset + digits;
+        for (int i = end - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static char uuidChar(int index, long high, long low) {
+        return switch (index) {
+            case 8, 13, 18, 23 -> '-';
+            case 14 -> '4';
+            case 19 -> VARIANT[(int) (low >>> 62)];
+            default -> {
+                int nibble = UUID_NIBBLES[index];
+                long bits = nibble < 16 ? high : low;
+                yield HEX[(int) (bits >>> ((nibble & 15) * 4)) & 0xF];
+            }
+        };
+    }
+
+    private static int[] uuidNibbles() {
+        // maps each free hex position of the UUID text to one of 30 random nibbles
+        int[] nibbles = new int[UUID_LENGTH];
+        int next = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            boolean fixed = i == 8 || i == 13 || i == 14 || i == 18 || i == 19 || i == 23;
+            nibbles[i] = fixed ? -1 : next++;
+        }
+        return nibbles;
+    }
+
+    private static int writeBytes(byte[] target, int offset, byte[] value) {
+        System.arraycopy(value, 0, target, offset, value.length);
+        return offset + value.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
 }
@@ -0,0 +1,27 @@
+package com.log.generator.utils;
+
+import java.util.SplittableRandom;
+
+/**
+ * Index-addressable random streams derived from one seed. Stream {@code i} depends on the seed
+ * and {@code i} only, never on which thread asks for it or when, so units generated in parallel
+ * draw the same numbers they would draw one after the other.
+ */
+public record SeedSequence(long seed) {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    public SplittableRandom stream(long index) {
+        // both sides are mixed: SplittableRandom(s) and SplittableRandom(s + gamma) would overlap
+        return new SplittableRandom(mix64(seed ^ mix64((index + 1) * GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Stafford's variant 13 of the MurmurHash3 64-bit finalizer.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
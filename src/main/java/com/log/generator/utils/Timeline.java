@@ -0,0 +1,27 @@
+package com.log.generator.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.random.RandomGenerator;
+
+/**
+ * Spreads {@code count} lines evenly over {@code [from, to)} with jitter inside each line's step,
+ * so timestamps never go backwards. Without a range every line is stamped with the current time.
+ */
+public record Timeline(Instant from, long stepNanos) {
+
+    public static Timeline of(Instant from, Instant to, long count) {
+        if (from == null) {
+            return new Timeline(null, 0);
+        }
+        return new Timeline(from, Duration.between(from, to).toNanos() / count);
+    }
+
+    public Instant at(long index, RandomGenerator random) {
+        if (from == null) {
+            return Instant.now();
+        }
+        long jitter = stepNanos > 0 ? random.nextLong(stepNanos) : 0;
+        return from.plusNanos(index * stepNanos + jitter);
+    }
+}
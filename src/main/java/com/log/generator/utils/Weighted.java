@@ -0,0 +1,48 @@
+package com.log.generator.utils;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice over enum constants, sampled in constant time from an {@link AliasTable}.
+ */
+public record Weighted<E extends Enum<E>>(E[] values, double[] weights, AliasTable table) {
+
+    /**
+     * Uses {@code weights} when given, constants missing from it get zero, and {@code defaults}
+     * otherwise.
+     */
+    public static <E extends Enum<E>> Weighted<E> of(E[] values, Map<E, Double> weights,
+        ToDoubleFunction<E> defaults) {
+        boolean explicit = weights != null && !weights.isEmpty();
+        double[] resolved = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            resolved[i] = explicit
+                ? weights.getOrDefault(values[i], 0.0)
+                : defaults.applyAsDouble(values[i]);
+        }
+        return new Weighted<>(values, resolved, AliasTable.of(resolved));
+    }
+
+    public static void validate(String name, Map<?, Double> weights) {
+        if (weights == null || weights.isEmpty()) {
+            return;
+        }
+        double total = 0;
+        for (Double weight : weights.values()) {
+            if (weight == null || weight < 0 || weight.isNaN() || weight.isInfinite()) {
+                throw new IllegalArgumentException(
+                    name + " weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException(name + " weights must not all be zero");
+        }
+    }
+
+    public E sample(RandomGenerator random) {
+        return values[table.sample(random)];
+    }
+}
@@ -0,0 +1,116 @@
+package com.log.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.log.generator.model.ExecutionMode;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.pipeline.RateController;
+import com.log.generator.pipeline.TrafficShaper;
+import com.log.generator.pipeline.UnitRandoms;
+import com.log.generator.pipeline.VirtualThreadRunner;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.OllamaOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.provider.GenerationProvider;
+import com.log.generator.service.AdaptiveBatchSizer;
+import com.log.generator.service.OllamaEndpoint;
+import com.log.generator.service.OllamaEndpointPool;
+import com.log.generator.service.SyntheticLogGeneratorService;
+import com.log.generator.service.TemplateService;
+import com.log.generator.trace.TraceSynthesizer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class ScheduledTasksTest {
+
+  private static final int MAX_PARALLEL = 2;
+  private static final int MAX_CONCURRENCY = 16;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void virtualThreadBurstsAreBoundedBySemaphoreOnly() throws Exception {
+    BlockingLlm llm = new BlockingLlm();
+    PipelineOptions pipelineOptions = new PipelineOptions();
+    pipelineOptions.getRateControl().setEnabled(false);
+    pipelineOptions.getExecution().setMode(ExecutionMode.VIRTUAL_THREADS);
+    pipelineOptions.getExecution().setMaxConcurrency(MAX_CONCURRENCY);
+    VirtualThreadRunner virtualThreads = new VirtualThreadRunner(pipelineOptions, meterRegistry);
+    try {
+      ScheduledTasks tasks = tasks(llm, pipelineOptions, virtualThreads);
+
+      tasks.generateLogs();
+      tasks.generateLogs();
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (llm.peak.get() < MAX_CONCURRENCY && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(llm.peak.get()).isEqualTo(MAX_CONCURRENCY);
+    } finally {
+      llm.release.countDown();
+      virtualThreads.shutdown();
+    }
+  }
+
+  private ScheduledTasks tasks(GenerationProvider llm, PipelineOptions pipelineOptions,
+      VirtualThreadRunner virtualThreads) throws ReflectiveOperationException {
+    GeneratorOptions generatorOptions = new GeneratorOptions();
+    generatorOptions.setMode(GenerationMode.LLM);
+    OllamaOptions ollamaOptions = new OllamaOptions();
+    TemplateService templateService = new TemplateService(generatorOptions);
+    SyntheticLogGeneratorService logGenerator = new SyntheticLogGeneratorService(List.of(llm),
+        templateService, generatorOptions, meterRegistry);
+    OllamaEndpointPool pool = new OllamaEndpointPool(
+        List.of(new OllamaEndpoint("http://node", null, CircuitBreaker.ofDefaults("node"))),
+        new OllamaOptions.Balancer(), meterRegistry);
+    RateController rateController = new RateController(pipelineOptions, pool, meterRegistry);
+    ScheduledTasks tasks = new ScheduledTasks(logGenerator, templateService, generatorOptions,
+        ollamaOptions, new AdaptiveBatchSizer(ollamaOptions), pipelineOptions, rateController,
+        (_, _) -> { }, virtualThreads,
+        new TrafficShaper(generatorOptions, pipelineOptions, rateController, meterRegistry),
+        new TraceSynthesizer(logGenerator, generatorOptions), new UnitRandoms(generatorOptions),
+        meterRegistry);
+    // bound by @Value in the application
+    Field maxParallel = ScheduledTasks.class.getDeclaredField("maxParallel");
+    maxParallel.setAccessible(true);
+    maxParallel.set(tasks, MAX_PARALLEL);
+    tasks.createBurstGate();
+    return tasks;
+  }
+
+  /** Ollama stand-in whose calls hold their thread until released, recording the peak. */
+  private static final class BlockingLlm implements GenerationProvider {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @Override
+    public GenerationMode mode() {
+      return GenerationMode.LLM;
+    }
+
+    @Override
+    public Mono<StructuredLogResponse> generate(GenerationRequest request) {
+      return Mono.fromCallable(() -> {
+        peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+          release.await();
+        } finally {
+          inFlight.decrementAndGet();
+        }
+        return StructuredLogResponse.builder().message("entry").level(request.level()).build();
+      });
+    }
+  }
+}
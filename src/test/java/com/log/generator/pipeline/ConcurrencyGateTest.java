@@ -0,0 +1,92 @@
+package com.log.generator.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ConcurrencyGateTest {
+
+  private final Timer waits = Timer.builder("test.wait").register(new SimpleMeterRegistry());
+
+  @Test
+  void startsWaitingUnitsAsRunningOnesFinish() {
+    ConcurrencyGate gate = new ConcurrencyGate(2, 10, waits);
+    AtomicInteger started = new AtomicInteger();
+    List<Sinks.One<String>> calls = new ArrayList<>();
+    List<String> results = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++) {
+      Sinks.One<String> call = Sinks.one();
+      calls.add(call);
+      gate.run(call.asMono().doOnSubscribe(_ -> started.incrementAndGet()))
+          .subscribe(results::add);
+    }
+    assertThat(started).hasValue(2);
+    assertThat(gate.waiting()).isEqualTo(2);
+
+    calls.get(0).tryEmitValue("first");
+    assertThat(started).hasValue(3);
+    calls.get(1).tryEmitValue("second");
+    calls.get(2).tryEmitValue("third");
+    calls.get(3).tryEmitValue("fourth");
+
+    assertThat(results).containsExactly("first", "second", "third", "fourth");
+    assertThat(gate.waiting()).isZero();
+    assertThat(waits.count()).isEqualTo(4);
+  }
+
+  @Test
+  void drainsSynchronouslyFailingWaitersWithoutRecursion() {
+    ConcurrencyGate gate = new ConcurrencyGate(1, 1000, waits);
+    Sinks.One<String> running = Sinks.one();
+    gate.run(running.asMono()).subscribe();
+    AtomicInteger failed = new AtomicInteger();
+    for (int i = 0; i < 1000; i++) {
+      gate.run(Mono.error(new IllegalStateException("down")))
+          .subscribe(null, _ -> failed.incrementAndGet());
+    }
+    assertThat(gate.waiting()).isEqualTo(1000);
+
+    running.tryEmitValue("done");
+    assertThat(failed).hasValue(1000);
+    assertThat(gate.waiting()).isZero();
+
+    AtomicInteger started = new AtomicInteger();
+    gate.run(Mono.never().doOnSubscribe(_ -> started.incrementAndGet())).subscribe();
+    gate.run(Mono.never().doOnSubscribe(_ -> started.incrementAndGet())).subscribe();
+    assertThat(started).hasValue(1);
+  }
+
+  @Test
+  void completesEmptyWhenTheQueueIsFull() {
+    ConcurrencyGate gate = new ConcurrencyGate(1, 1, waits);
+    gate.run(Mono.never()).subscribe();
+    gate.run(Mono.never()).subscribe();
+
+    assertThat(gate.run(Mono.just("late")).blockOptional()).isEmpty();
+  }
+
+  @Test
+  void cancelledWaiterGivesUpItsPlace() {
+    ConcurrencyGate gate = new ConcurrencyGate(1, 1, waits);
+    Sinks.One<String> running = Sinks.one();
+    gate.run(running.asMono()).subscribe();
+    Disposable waiter = gate.run(Mono.just("cancelled")).subscribe();
+
+    waiter.dispose();
+    assertThat(gate.waiting()).isZero();
+
+    List<String> results = new ArrayList<>();
+    gate.run(Mono.just("next")).subscribe(results::add);
+    running.tryEmitValue("done");
+    assertThat(results).containsExactly("next");
+  }
+}
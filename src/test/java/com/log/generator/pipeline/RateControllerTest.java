@@ -0,0 +1,90 @@
+package com.log.generator.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.log.generator.model.ExecutionMode;
+import com.log.generator.properties.OllamaOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.service.OllamaEndpoint;
+import com.log.generator.service.OllamaEndpointPool;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class RateControllerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void scalesTheLimitWithTheHealthyNodes() {
+    CircuitBreaker first = CircuitBreaker.ofDefaults("first");
+    CircuitBreaker second = CircuitBreaker.ofDefaults("second");
+    RateController controller = controller(first, second);
+    for (int i = 0; i < 200; i++) {
+      controller.onSuccess(0, 1);
+    }
+    assertThat(controller.getConcurrencyLimit()).isEqualTo(8.0);
+
+    first.transitionToOpenState();
+    assertThat(controller.getConcurrencyLimit()).isEqualTo(4.0);
+
+    second.transitionToOpenState();
+    assertThat(controller.getConcurrencyLimit()).isEqualTo(1.0);
+
+    first.transitionToHalfOpenState();
+    first.transitionToClosedState();
+    assertThat(controller.getConcurrencyLimit()).isEqualTo(4.0);
+  }
+
+  @Test
+  void virtualThreadsCapTheLimitAtTheExecutionSemaphore() {
+    PipelineOptions options = options();
+    options.getExecution().setMode(ExecutionMode.VIRTUAL_THREADS);
+    options.getExecution().setMaxConcurrency(32);
+    RateController controller = controller(options, CircuitBreaker.ofDefaults("node"));
+    for (int i = 0; i < 2000; i++) {
+      controller.onSuccess(0, 1);
+    }
+    assertThat(controller.getConcurrencyLimit()).isEqualTo(32.0);
+  }
+
+  @Test
+  void backlogKeepsGrowingPastTheBucketCapacity() throws InterruptedException {
+    PipelineOptions options = options();
+    options.getRateControl().setTargetLinesPerSecond(20);
+    options.getRateControl().setBurst(Duration.ofMillis(50));
+    RateController controller = controller(options, CircuitBreaker.ofDefaults("node"));
+
+    Thread.sleep(500);
+    controller.refill();
+    double backlog = controller.getBacklog();
+    assertThat(backlog).isGreaterThanOrEqualTo(10.0);
+
+    assertThat(controller.tryAcquire(1)).isTrue();
+    assertThat(controller.getBacklog()).isEqualTo(backlog - 1);
+  }
+
+  private RateController controller(CircuitBreaker... breakers) {
+    return controller(options(), breakers);
+  }
+
+  private PipelineOptions options() {
+    PipelineOptions options = new PipelineOptions();
+    options.getRateControl().setMinConcurrency(1);
+    options.getRateControl().setMaxConcurrency(8);
+    return options;
+  }
+
+  private RateController controller(PipelineOptions options, CircuitBreaker... breakers) {
+    List<OllamaEndpoint> endpoints = new ArrayList<>();
+    for (CircuitBreaker breaker : breakers) {
+      endpoints.add(new OllamaEndpoint("http://" + breaker.getName(), null, breaker));
+    }
+    OllamaEndpointPool pool = new OllamaEndpointPool(endpoints, new OllamaOptions.Balancer(),
+        meterRegistry);
+    return new RateController(options, pool, meterRegistry);
+  }
+}
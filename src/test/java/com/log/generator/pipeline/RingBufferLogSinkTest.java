@@ -0,0 +1,132 @@
+package com.log.generator.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.OverflowPolicy;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.model.WaitStrategyType;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.sink.LogSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class RingBufferLogSinkTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void deliversEveryEntryOnceInProducerOrder() throws Exception {
+    List<String> written = Collections.synchronizedList(new ArrayList<>());
+    RingBufferLogSink ring = new RingBufferLogSink((entry, _) -> written.add(entry.getMessage()),
+        options(8, OverflowPolicy.BLOCK), meterRegistry);
+    int producers = 4;
+    int perProducer = 5_000;
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      threads.add(Thread.ofPlatform().start(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          ring.write(entry(producer + ":" + i), LogScenario.API_REQUEST);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    ring.close();
+
+    assertThat(written).hasSize(producers * perProducer);
+    for (int p = 0; p < producers; p++) {
+      String prefix = p + ":";
+      List<String> own = written.stream().filter(message -> message.startsWith(prefix)).toList();
+      assertThat(own).hasSize(perProducer);
+      for (int i = 0; i < perProducer; i++) {
+        assertThat(own.get(i)).isEqualTo(prefix + i);
+      }
+    }
+  }
+
+  @Test
+  void dropsWhenFullUnderTheDropPolicy() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> written = Collections.synchronizedList(new ArrayList<>());
+    LogSink blocked = (entry, _) -> {
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      written.add(entry.getMessage());
+    };
+    RingBufferLogSink ring = new RingBufferLogSink(blocked, options(4, OverflowPolicy.DROP),
+        meterRegistry);
+
+    for (int i = 0; i < 10; i++) {
+      ring.write(entry(String.valueOf(i)), LogScenario.API_REQUEST);
+    }
+    assertThat(meterRegistry.get("pipeline.ring.dropped").counter().count()).isEqualTo(6.0);
+
+    release.countDown();
+    ring.close();
+    assertThat(written).containsExactly("0", "1", "2", "3");
+  }
+
+  @Test
+  void roundsTheCapacityUpToAPowerOfTwo() throws Exception {
+    RingBufferLogSink ring = new RingBufferLogSink((_, _) -> {
+    }, options(5, OverflowPolicy.BLOCK), meterRegistry);
+
+    assertThat(meterRegistry.get("pipeline.ring.capacity").gauge().value()).isEqualTo(8.0);
+    ring.close();
+  }
+
+  @Test
+  void drainsPublishedEntriesAndClosesTheDelegateOnClose() throws Exception {
+    List<String> written = Collections.synchronizedList(new ArrayList<>());
+    AtomicBoolean closed = new AtomicBoolean();
+    RingBufferLogSink ring = new RingBufferLogSink(new ClosingSink(written, closed),
+        options(64, OverflowPolicy.BLOCK), meterRegistry);
+
+    for (int i = 0; i < 50; i++) {
+      ring.write(entry(String.valueOf(i)), LogScenario.API_REQUEST);
+    }
+    ring.close();
+
+    assertThat(written).hasSize(50);
+    assertThat(closed).isTrue();
+  }
+
+  private static PipelineOptions.RingBuffer options(int size, OverflowPolicy overflowPolicy) {
+    PipelineOptions.RingBuffer options = new PipelineOptions.RingBuffer();
+    options.setSize(size);
+    options.setConsumers(1);
+    options.setWaitStrategy(WaitStrategyType.YIELDING);
+    options.setOverflowPolicy(overflowPolicy);
+    return options;
+  }
+
+  private static StructuredLogResponse entry(String message) {
+    return StructuredLogResponse.builder().message(message).build();
+  }
+
+  private record ClosingSink(List<String> written, AtomicBoolean closed)
+      implements LogSink, AutoCloseable {
+
+    @Override
+    public void write(StructuredLogResponse entry, LogScenario scenario) {
+      written.add(entry.getMessage());
+    }
+
+    @Override
+    public void close() {
+      closed.set(true);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.log.generator.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SlotMixTest {
+
+  @Test
+  void defaultsToEqualScenariosAndTheLevelProbabilities() {
+    SlotMix mix = SlotMix.of(Map.of(), Map.of(), Map.of());
+    double scenarios = LogScenario.values().length;
+
+    mix.probabilities().forEach((scenario, levels) -> levels.forEach((level, probability) ->
+        assertThat(probability).isCloseTo(level.getProbability() / scenarios, within(1e-12))));
+  }
+
+  @Test
+  void appliesPerScenarioLevelsOnTopOfTheSharedOnes() {
+    SlotMix mix = SlotMix.of(
+        Map.of(LogScenario.API_REQUEST, 3.0, LogScenario.SECURITY_EVENT, 1.0),
+        Map.of(LogLevel.INFO, 1.0, LogLevel.WARN, 1.0),
+        Map.of(LogScenario.SECURITY_EVENT, Map.of(LogLevel.ERROR, 1.0)));
+
+    Map<LogScenario, Map<LogLevel, Double>> probabilities = mix.probabilities();
+    assertThat(probabilities.get(LogScenario.API_REQUEST).get(LogLevel.INFO))
+        .isCloseTo(0.375, within(1e-12));
+    assertThat(probabilities.get(LogScenario.API_REQUEST).get(LogLevel.ERROR)).isZero();
+    assertThat(probabilities.get(LogScenario.SECURITY_EVENT).get(LogLevel.ERROR))
+        .isCloseTo(0.25, within(1e-12));
+    assertThat(probabilities.get(LogScenario.SECURITY_EVENT).get(LogLevel.INFO)).isZero();
+    assertThat(probabilities.get(LogScenario.USER_LOGIN).values()).containsOnly(0.0);
+
+    SplittableRandom random = new SplittableRandom(3);
+    for (int i = 0; i < 50_000; i++) {
+      Map.Entry<LogScenario, LogLevel> slot = mix.sample(random);
+      assertThat(probabilities.get(slot.getKey()).get(slot.getValue())).isPositive();
+    }
+  }
+
+  @Test
+  void rejectsInvalidWeights() {
+    assertThatIllegalArgumentException().isThrownBy(() ->
+        SlotMix.of(Map.of(LogScenario.API_REQUEST, -1.0), Map.of(), Map.of()));
+    assertThatIllegalArgumentException().isThrownBy(() ->
+        SlotMix.of(Map.of(), Map.of(LogLevel.INFO, 0.0), Map.of()));
+    assertThatIllegalArgumentException().isThrownBy(() ->
+        SlotMix.of(Map.of(), Map.of(),
+            Map.of(LogScenario.API_REQUEST, Map.of(LogLevel.INFO, Double.NaN))));
+  }
+}
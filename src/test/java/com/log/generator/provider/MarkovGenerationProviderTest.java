@@ -0,0 +1,76 @@
+package com.log.generator.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.PipelineOptions;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MarkovGenerationProviderTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void leavesUntrainedLevelsEmpty() throws Exception {
+    Path corpus = directory.resolve("corpus.log");
+    Files.write(corpus, List.of(
+        line("INFO", "GET /api/orders responded with status 200 after 12ms"),
+        line("INFO", "POST /api/payments responded with status 201 after 40ms")));
+    GeneratorOptions options = new GeneratorOptions();
+    options.getMarkov().setTrainingFile(corpus.toString());
+    MarkovGenerationProvider provider = new MarkovGenerationProvider(new ObjectMapper(), options,
+        new PipelineOptions());
+
+    provider.train();
+
+    SplittableRandom random = new SplittableRandom(7);
+    assertThat(provider.isTrained(LogScenario.API_REQUEST, LogLevel.INFO)).isTrue();
+    assertThat(provider.isTrained(LogScenario.API_REQUEST, LogLevel.ERROR)).isFalse();
+    for (int i = 0; i < 100; i++) {
+      StructuredLogResponse entry = provider.sample(LogScenario.API_REQUEST, LogLevel.INFO,
+          random);
+      assertThat(entry.getLevel()).isEqualTo(LogLevel.INFO);
+      assertThat(provider.sample(LogScenario.API_REQUEST, LogLevel.ERROR, random)).isNull();
+    }
+  }
+
+  @Test
+  void doesNotRetrainOnTheSinkOutput() throws Exception {
+    Path sinkFile = directory.resolve("synthetic.log");
+    Path corpus = directory.resolve("corpus").resolve("synthetic.log");
+    Files.createDirectories(corpus.getParent());
+    List<String> lines = List.of(line("INFO", "GET /api/orders responded with status 200"));
+    Files.write(sinkFile, lines);
+    Files.write(corpus, lines);
+    GeneratorOptions options = new GeneratorOptions();
+    options.setMode(GenerationMode.MARKOV);
+    PipelineOptions pipelineOptions = new PipelineOptions();
+    pipelineOptions.getSink().setFile(sinkFile.toString());
+    MarkovGenerationProvider provider = new MarkovGenerationProvider(new ObjectMapper(), options,
+        pipelineOptions);
+
+    options.getMarkov().setTrainingFile(sinkFile.toString());
+    provider.retrain();
+    assertThat(provider.isReady()).isFalse();
+
+    options.getMarkov().setTrainingFile(corpus.toString());
+    provider.retrain();
+    assertThat(provider.isReady()).isTrue();
+  }
+
+  private static String line(String level, String message) {
+    return "{\"level\":\"" + level + "\",\"logger_name\":\"com.synthetic.ApiController\","
+        + "\"message\":\"" + message + "\",\"user_id\":\"user1\"}";
+  }
+}
@@ -0,0 +1,182 @@
+package com.log.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.log.generator.properties.OllamaOptions;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class OllamaEndpointPoolTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final OllamaOptions.Balancer balancer = new OllamaOptions.Balancer();
+  private final List<StubNode> nodes = new ArrayList<>();
+
+  @AfterEach
+  void stopNodes() throws IOException {
+    for (StubNode node : nodes) {
+      node.slow.countDown();
+      node.server.shutdown();
+    }
+  }
+
+  @Test
+  void ejectsAfterFailedProbesAndReadmitsOnSuccess() throws Exception {
+    balancer.setEjectAfterFailures(2);
+    StubNode node = node("a");
+    OllamaEndpointPool pool = pool(endpoint(node, CircuitBreaker.ofDefaults("a")));
+    OllamaEndpoint endpoint = pool.getEndpoints().getFirst();
+
+    node.status = 500;
+    pool.probe();
+    awaitRequests(node, 1);
+    assertThat(endpoint.isHealthy()).isTrue();
+    pool.probe();
+    await(() -> !endpoint.isHealthy());
+    assertThat(endpoint.isAvailable()).isFalse();
+
+    node.status = 200;
+    pool.probe();
+    await(endpoint::isHealthy);
+    assertThat(endpoint.isAvailable()).isTrue();
+  }
+
+  @Test
+  void probesLeaveAnOpenBreakerToItsOwnTimer() throws Exception {
+    StubNode node = node("a");
+    CircuitBreaker breaker = CircuitBreaker.of("a", CircuitBreakerConfig.custom()
+        .waitDurationInOpenState(Duration.ofMinutes(1)).build());
+    OllamaEndpointPool pool = pool(endpoint(node, breaker));
+    breaker.transitionToOpenState();
+
+    pool.probe();
+    awaitRequests(node, 1);
+    Thread.sleep(100);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void sendsCallsToTheNodeWithFewestOutstanding() throws Exception {
+    StubNode a = node("a");
+    StubNode b = node("b");
+    OllamaEndpointPool pool = pool(endpoint(a, CircuitBreaker.ofDefaults("a")),
+        endpoint(b, CircuitBreaker.ofDefaults("b")));
+
+    pool.exchange(endpoint -> call(endpoint, "/slow")).subscribe();
+    await(() -> a.server.getRequestCount() + b.server.getRequestCount() == 1);
+    StubNode busy = a.server.getRequestCount() == 1 ? a : b;
+    StubNode idle = busy == a ? b : a;
+    OllamaEndpoint idleEndpoint = pool.getEndpoints().get(busy == a ? 1 : 0);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(pool.exchange(endpoint -> call(endpoint, "/fast")).block())
+          .isEqualTo(idle.name);
+      // block() returns on the value, before the call releases its endpoint
+      await(() -> idleEndpoint.getOutstandingRequests() == 0);
+    }
+    assertThat(busy.server.getRequestCount()).isEqualTo(1);
+  }
+
+  @Test
+  void failsOverWhenANodeBreakerOpens() {
+    StubNode failing = node("a");
+    StubNode healthy = node("b");
+    failing.status = 500;
+    CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+        .slidingWindowSize(4)
+        .minimumNumberOfCalls(2)
+        .failureRateThreshold(50)
+        .waitDurationInOpenState(Duration.ofMinutes(1))
+        .build();
+    CircuitBreaker failingBreaker = CircuitBreaker.of("a", config);
+    OllamaEndpointPool pool = pool(endpoint(failing, failingBreaker),
+        endpoint(healthy, CircuitBreaker.of("b", config)));
+
+    for (int i = 0; i < 8 && failingBreaker.getState() != CircuitBreaker.State.OPEN; i++) {
+      pool.exchange(endpoint -> call(endpoint, "/fast")).onErrorResume(_ -> Mono.empty())
+          .block();
+    }
+    assertThat(failingBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    int failed = failing.server.getRequestCount();
+    for (int i = 0; i < 4; i++) {
+      assertThat(pool.exchange(endpoint -> call(endpoint, "/fast")).block()).isEqualTo("b");
+    }
+    assertThat(failing.server.getRequestCount()).isEqualTo(failed);
+    assertThat(pool.healthyShare()).isEqualTo(0.5);
+  }
+
+  private static Mono<String> call(OllamaEndpoint endpoint, String path) {
+    return endpoint.getWebClient().get().uri(path).retrieve().bodyToMono(String.class);
+  }
+
+  private OllamaEndpointPool pool(OllamaEndpoint... endpoints) {
+    return new OllamaEndpointPool(List.of(endpoints), balancer, meterRegistry);
+  }
+
+  private static OllamaEndpoint endpoint(StubNode stub, CircuitBreaker breaker) {
+    String url = stub.server.url("/").toString();
+    return new OllamaEndpoint(url, WebClient.builder().baseUrl(url).build(), breaker);
+  }
+
+  private StubNode node(String name) {
+    StubNode node = new StubNode(name);
+    nodes.add(node);
+    return node;
+  }
+
+  private static void awaitRequests(StubNode node, int count) throws InterruptedException {
+    await(() -> node.server.getRequestCount() >= count);
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+
+  /** Ollama node stand-in: answers with its name, or {@code status} when that is not 200. */
+  private static final class StubNode extends Dispatcher {
+
+    private final String name;
+    private final MockWebServer server = new MockWebServer();
+    private final CountDownLatch slow = new CountDownLatch(1);
+    private volatile int status = 200;
+
+    private StubNode(String name) {
+      this.name = name;
+      server.setDispatcher(this);
+      try {
+        server.start();
+      } catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+      if ("/slow".equals(request.getPath())) {
+        slow.await();
+      }
+      return new MockResponse().setResponseCode(status).setBody(name);
+    }
+  }
+}
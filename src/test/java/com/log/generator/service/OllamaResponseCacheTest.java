@@ -0,0 +1,75 @@
+package com.log.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.OllamaOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OllamaResponseCacheTest {
+
+  private OllamaResponseCache cache;
+  private OllamaResponseCache.CacheKey key;
+
+  @BeforeEach
+  void setUp() {
+    OllamaOptions options = new OllamaOptions();
+    options.getCache().setEnabled(true);
+    options.getCache().setVariantsPerKey(1);
+    cache = new OllamaResponseCache(options, new ObjectMapper(), new SimpleMeterRegistry());
+    key = cache.key(LogScenario.API_REQUEST, LogLevel.INFO, Map.of());
+  }
+
+  @Test
+  void hitsAreIndependentOfTheStoredEntry() {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("batch", new HashMap<>(Map.of("size", 3)));
+    StructuredLogResponse response = StructuredLogResponse.builder()
+        .message("Inserted 74 rows")
+        .level(LogLevel.INFO)
+        .metadata(metadata)
+        .build();
+    cache.put(key, response);
+    response.setTransactionId("put-after");
+
+    StructuredLogResponse first = cache.lookup(key).orElseThrow();
+    first.setTransactionId("txn-1");
+    first.setLevel(LogLevel.ERROR);
+    first.getMetadata().put("span", "a");
+
+    StructuredLogResponse second = cache.lookup(key).orElseThrow();
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getTransactionId()).isNull();
+    assertThat(second.getLevel()).isEqualTo(LogLevel.INFO);
+    assertThat(second.getMetadata()).containsOnlyKeys("batch");
+  }
+
+  @Test
+  void signatureKeepsOnlyTheMeaningOfTheContext() {
+    Map<String, Object> first = Map.of("request_id", "a1", "service_version", "2.1.5",
+        "source_ip", "10.0.0.7", "status_code", 503, "response_time", "120ms");
+    Map<String, Object> second = Map.of("request_id", "b2", "service_version", "3.0.1",
+        "source_ip", "172.16.4.2", "status_code", 500, "response_time", "1800ms");
+
+    assertThat(OllamaResponseCache.signature(first))
+        .isEqualTo(OllamaResponseCache.signature(second))
+        .isEqualTo("status_code=5xx;");
+    assertThat(OllamaResponseCache.signature(Map.of("status_code", 200)))
+        .isNotEqualTo(OllamaResponseCache.signature(first));
+  }
+
+  @Test
+  void signatureBucketsNumericText() {
+    assertThat(OllamaResponseCache.signature(Map.of("query_time", "4200ms", "risk_score", 90)))
+        .isEqualTo("query_time=slow;risk_score=high;");
+    assertThat(OllamaResponseCache.signature(Map.of("query_time", "35ms", "risk_score", 12)))
+        .isEqualTo("query_time=fast;risk_score=low;");
+  }
+}
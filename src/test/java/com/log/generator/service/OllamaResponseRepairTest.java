@@ -0,0 +1,107 @@
+package com.log.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.OllamaOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class OllamaResponseRepairTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final OllamaResponseRepair repair = new OllamaResponseRepair(new ObjectMapper(),
+      new OllamaOptions(), meterRegistry);
+
+  @Test
+  void skipsLeadingProseAndTrailingText() {
+    assertThat(OllamaResponseRepair.close(
+        "Sure, here is the entry: {\"message\":\"ok\",\"level\":\"INFO\"}\nHope it helps"))
+        .isEqualTo("{\"message\":\"ok\",\"level\":\"INFO\"}");
+    assertThat(OllamaResponseRepair.close("no object here")).isNull();
+  }
+
+  @Test
+  void closesTruncatedStrings() {
+    assertThat(OllamaResponseRepair.close("{\"message\":\"Disk usage at 9"))
+        .isEqualTo("{\"message\":\"Disk usage at 9\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"path C:\\"))
+        .isEqualTo("{\"message\":\"path C:\"}");
+  }
+
+  @Test
+  void dropsPartialUnicodeEscapes() {
+    assertThat(OllamaResponseRepair.close("{\"message\":\"caf\\u00"))
+        .isEqualTo("{\"message\":\"caf\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"caf\\u"))
+        .isEqualTo("{\"message\":\"caf\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"caf\\u00e9"))
+        .isEqualTo("{\"message\":\"caf\\u00e9\"}");
+  }
+
+  @Test
+  void removesDanglingKeysAndTrailingCommas() {
+    assertThat(OllamaResponseRepair.close("{\"message\":\"ok\",\"lev"))
+        .isEqualTo("{\"message\":\"ok\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"ok\",\"level\":"))
+        .isEqualTo("{\"message\":\"ok\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"ok\",\"level\""))
+        .isEqualTo("{\"message\":\"ok\"}");
+    assertThat(OllamaResponseRepair.close("{\"message\":\"ok\",}"))
+        .isEqualTo("{\"message\":\"ok\"}");
+  }
+
+  @Test
+  void cutsTruncatedScalarsAtTheLastCompleteValue() {
+    assertThat(OllamaResponseRepair.close("{\"status_code\":200,\"duration_ms\":12"))
+        .isEqualTo("{\"status_code\":200}");
+  }
+
+  @Test
+  void closesNestedArrays() {
+    assertThat(OllamaResponseRepair.close("{\"tags\":[[\"a\",\"b\"],[\"c\""))
+        .isEqualTo("{\"tags\":[[\"a\",\"b\"],[\"c\"]]}");
+    assertThat(OllamaResponseRepair.close("{\"m\":[1,2,3],\"n\":[[{\"k\":"))
+        .isEqualTo("{\"m\":[1,2,3],\"n\":[[{}]]}");
+  }
+
+  @Test
+  void escapesRawControlCharacters() {
+    assertThat(OllamaResponseRepair.close("{\"message\":\"a\nb\tc\u0001\"}"))
+        .isEqualTo("{\"message\":\"a\\nb\\tc\\u0001\"}");
+  }
+
+  @Test
+  void stopsAtTheMaximumDepth() {
+    String closed = OllamaResponseRepair.close("{\"a\":" + "[".repeat(20) + "1");
+
+    assertThat(closed).isEqualTo("{\"a\":" + "[".repeat(15) + "]".repeat(15) + "}");
+    Optional<JsonNode> tree = repair.repairTree("{\"a\":" + "[".repeat(20) + "1");
+    assertThat(tree).isPresent();
+  }
+
+  @Test
+  void salvagesATruncatedEntryWithTheRequestedLevel() {
+    Optional<StructuredLogResponse> entry = repair.salvage("{\"message\":\"Disk full on /var",
+        LogScenario.SYSTEM_STARTUP, LogLevel.ERROR);
+
+    assertThat(entry).isPresent();
+    assertThat(entry.get().getMessage()).isEqualTo("Disk full on /var");
+    assertThat(entry.get().getLevel()).isEqualTo(LogLevel.ERROR);
+    assertThat(meterRegistry.get("ollama.responses").tag("result", "salvaged").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void countsResponsesWithoutAnObjectAsFailed() {
+    assertThat(repair.salvage("I cannot help with that", LogScenario.API_REQUEST,
+        LogLevel.INFO)).isEmpty();
+    assertThat(meterRegistry.get("ollama.responses").tag("result", "failed").counter().count())
+        .isEqualTo(1.0);
+  }
+}
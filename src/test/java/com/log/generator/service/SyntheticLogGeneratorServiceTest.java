@@ -0,0 +1,74 @@
+package com.log.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.GenerationMode;
+import com.log.generator.model.GenerationRequest;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.GeneratorOptions;
+import com.log.generator.properties.PipelineOptions;
+import com.log.generator.provider.GenerationProvider;
+import com.log.generator.provider.MarkovGenerationProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class SyntheticLogGeneratorServiceTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger llmCalls = new AtomicInteger();
+
+  @Test
+  void dropsMarkovMissesWhenTheFallbackIsDisabled() {
+    SyntheticLogGeneratorService service = service(false);
+
+    assertThat(service.isLocalProviderReady()).isTrue();
+    assertThat(service.generateLogEntry(LogScenario.API_REQUEST, LogLevel.ERROR,
+        new SplittableRandom(1)).blockOptional()).isEmpty();
+    assertThat(llmCalls).hasValue(0);
+    assertThat(meterRegistry.get("generator.dropped").tag("scenario", "API_REQUEST").counter()
+        .count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void sendsMarkovMissesToOllamaByDefault() {
+    SyntheticLogGeneratorService service = service(true);
+
+    assertThat(service.isLocalProviderReady()).isFalse();
+    assertThat(service.generateLogEntry(LogScenario.API_REQUEST, LogLevel.ERROR,
+        new SplittableRandom(1)).blockOptional()).isPresent();
+    assertThat(llmCalls).hasValue(1);
+    assertThat(meterRegistry.get("generator.fallbacks").tag("scenario", "API_REQUEST").counter()
+        .count()).isEqualTo(1.0);
+  }
+
+  private SyntheticLogGeneratorService service(boolean llmFallback) {
+    GeneratorOptions options = new GeneratorOptions();
+    options.setMode(GenerationMode.MARKOV);
+    options.getMarkov().setLlmFallback(llmFallback);
+    // never trained, so every scenario/level misses
+    MarkovGenerationProvider markov = new MarkovGenerationProvider(new ObjectMapper(), options,
+        new PipelineOptions());
+    GenerationProvider llm = new GenerationProvider() {
+      @Override
+      public GenerationMode mode() {
+        return GenerationMode.LLM;
+      }
+
+      @Override
+      public Mono<StructuredLogResponse> generate(GenerationRequest request) {
+        llmCalls.incrementAndGet();
+        return Mono.just(StructuredLogResponse.builder().message("from ollama")
+            .level(request.level()).build());
+      }
+    };
+    return new SyntheticLogGeneratorService(List.of(markov, llm), new TemplateService(options),
+        options, meterRegistry);
+  }
+}
@@ -0,0 +1,89 @@
+package com.log.generator.sink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.model.LogLevel;
+import com.log.generator.model.LogScenario;
+import com.log.generator.model.StructuredLogResponse;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class JsonFileLogSinkTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void writesLinesLargerThanTheBuffer() throws Exception {
+    PipelineOptions.Sink options = new PipelineOptions.Sink();
+    options.setFile(directory.resolve("synthetic.log").toString());
+    options.setBufferSize(DataSize.ofBytes(1024));
+    options.setBuffers(2);
+    options.setCompress(false);
+    String large = "x".repeat(4096);
+
+    JsonFileLogSink sink = new JsonFileLogSink(new JsonLineEncoder(objectMapper), options,
+        new SimpleMeterRegistry());
+    sink.write(entry("before"), LogScenario.API_REQUEST);
+    sink.write(entry(large), LogScenario.API_REQUEST);
+    sink.write(entry("after"), LogScenario.API_REQUEST);
+    sink.close();
+
+    List<String> lines = Files.readAllLines(directory.resolve("synthetic.log"));
+    assertThat(lines).hasSize(3);
+    assertThat(lines).extracting(this::message)
+        .containsExactly("before", large, "after");
+  }
+
+  @Test
+  void keepsWritingWhenARollFails() throws Exception {
+    Path file = directory.resolve("synthetic.log");
+    PipelineOptions.Sink options = new PipelineOptions.Sink();
+    options.setFile(file.toString());
+    options.setBufferSize(DataSize.ofBytes(1024));
+    options.setBuffers(2);
+    options.setMaxFileSize(DataSize.ofBytes(4096));
+    options.setCompress(false);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    JsonFileLogSink sink = new JsonFileLogSink(new JsonLineEncoder(objectMapper), options,
+        meterRegistry);
+    sink.write(entry("first"), LogScenario.API_REQUEST);
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (Files.size(file) == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    // the open file can no longer be moved to its archive
+    Files.delete(file);
+    Counter rollFailures = meterRegistry.get("sink.roll.failures").counter();
+    while (rollFailures.count() == 0 && System.nanoTime() < deadline) {
+      sink.write(entry("x".repeat(100)), LogScenario.API_REQUEST);
+    }
+    sink.write(entry("last"), LogScenario.API_REQUEST);
+    sink.close();
+
+    assertThat(rollFailures.count()).isPositive();
+    List<String> lines = Files.readAllLines(file);
+    assertThat(message(lines.getLast())).isEqualTo("last");
+  }
+
+  private String message(String line) throws Exception {
+    JsonNode node = objectMapper.readTree(line);
+    return node.path("message").asText();
+  }
+
+  private static StructuredLogResponse entry(String message) {
+    return StructuredLogResponse.builder().message(message).level(LogLevel.INFO).build();
+  }
+}
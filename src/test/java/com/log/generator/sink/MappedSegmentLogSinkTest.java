@@ -0,0 +1,62 @@
+package com.log.generator.sink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.log.generator.properties.PipelineOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class MappedSegmentLogSinkTest {
+
+  private static final int SEGMENT_SIZE = 4096;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void countsLinesWhileNoSegmentMapsAndResumesAfterwards() throws Exception {
+    Path logs = directory.resolve("logs");
+    Path moved = directory.resolve("moved");
+    PipelineOptions.Sink options = new PipelineOptions.Sink();
+    options.setFile(logs.resolve("synthetic.log").toString());
+    options.setSegmentSize(DataSize.ofBytes(SEGMENT_SIZE));
+    options.setCompress(false);
+    byte[] line = "x".repeat(99).concat("\n").getBytes(StandardCharsets.UTF_8);
+
+    MappedSegmentLogSink sink = new MappedSegmentLogSink(new JsonLineEncoder(new ObjectMapper()),
+        options, meterRegistry);
+    // segments can no longer be created where the sink expects them
+    Files.move(logs, moved);
+    Files.createFile(logs);
+    for (int i = 0; i < 3 * SEGMENT_SIZE / line.length; i++) {
+      sink.append(line, line.length);
+    }
+
+    assertThat(counter("sink.roll.failures")).isPositive();
+    assertThat(meterRegistry.get("sink.dropped").tag("reason", "unavailable").counter().count())
+        .isPositive();
+
+    Files.delete(logs);
+    Files.move(moved, logs);
+    double written = counter("sink.lines");
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    while (counter("sink.lines") == written && System.nanoTime() < deadline) {
+      sink.append(line, line.length);
+      Thread.sleep(50);
+    }
+    assertThat(counter("sink.lines")).isGreaterThan(written);
+    sink.close();
+  }
+
+  private double counter(String name) {
+    return meterRegistry.get(name).counter().count();
+  }
+}
@@ -0,0 +1,79 @@
+package com.log.generator.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AliasTableTest {
+
+  @Test
+  void columnsAddUpToTheWeights() {
+    double[] weights = {1, 2, 3, 0, 4, 0.5};
+    double total = 10.5;
+
+    double[] exact = outcomeProbabilities(AliasTable.of(weights));
+
+    for (int i = 0; i < weights.length; i++) {
+      assertThat(exact[i]).isCloseTo(weights[i] / total, within(1e-12));
+    }
+  }
+
+  @Test
+  void neverPicksAZeroWeight() {
+    double[] weights = {0, 1e-9, 0, 7, 0};
+    AliasTable table = AliasTable.of(weights);
+
+    assertThat(outcomeProbabilities(table)[0]).isZero();
+    assertThat(outcomeProbabilities(table)[2]).isZero();
+    assertThat(outcomeProbabilities(table)[4]).isZero();
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < 100_000; i++) {
+      assertThat(table.sample(random)).isIn(1, 3);
+    }
+  }
+
+  @Test
+  void samplesFollowTheWeights() {
+    double[] weights = {5, 1, 3, 1};
+    AliasTable table = AliasTable.of(weights);
+    SplittableRandom random = new SplittableRandom(42);
+    int draws = 200_000;
+    int[] counts = new int[weights.length];
+
+    for (int i = 0; i < draws; i++) {
+      counts[table.sample(random)]++;
+    }
+
+    for (int i = 0; i < weights.length; i++) {
+      assertThat((double) counts[i] / draws).isCloseTo(weights[i] / 10, within(0.005));
+    }
+  }
+
+  @Test
+  void rejectsInvalidWeights() {
+    assertThatIllegalArgumentException().isThrownBy(() -> AliasTable.of(new double[0]));
+    assertThatIllegalArgumentException().isThrownBy(() -> AliasTable.of(new double[] {0, 0}));
+    assertThatIllegalArgumentException().isThrownBy(() -> AliasTable.of(new double[] {1, -1}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> AliasTable.of(new double[] {1, Double.NaN}));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> AliasTable.of(new double[] {1, Double.POSITIVE_INFINITY}));
+  }
+
+  /**
+   * Column {@code i} is drawn with probability {@code 1/n} and keeps {@code i} with
+   * {@code probability[i]}, giving the rest to its alias.
+   */
+  private static double[] outcomeProbabilities(AliasTable table) {
+    int n = table.size();
+    double[] result = new double[n];
+    for (int column = 0; column < n; column++) {
+      result[column] += table.probability()[column] / n;
+      result[table.alias()[column]] += (1 - table.probability()[column]) / n;
+    }
+    return result;
+  }
+}
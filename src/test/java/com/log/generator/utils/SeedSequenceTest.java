@@ -0,0 +1,56 @@
+package com.log.generator.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class SeedSequenceTest {
+
+  @Test
+  void mixesLikeSplitMix64() {
+    assertThat(SeedSequence.mix64(0)).isZero();
+    // first output of SplitMix64 seeded with 0
+    assertThat(SeedSequence.mix64(0x9e3779b97f4a7c15L)).isEqualTo(0xe220a8397b1dcdafL);
+  }
+
+  @Test
+  void streamDependsOnSeedAndIndexOnly() {
+    SeedSequence seeds = new SeedSequence(42);
+    long[] sequential = IntStream.range(0, 10_000)
+        .mapToLong(index -> seeds.stream(index).nextLong())
+        .toArray();
+    // reversed and in parallel, as units are generated concurrently
+    long[] parallel = IntStream.range(0, 10_000).parallel()
+        .map(index -> 9_999 - index)
+        .mapToLong(index -> new SeedSequence(42).stream(index).nextLong())
+        .toArray();
+
+    for (int index = 0; index < sequential.length; index++) {
+      assertThat(parallel[9_999 - index]).isEqualTo(sequential[index]);
+    }
+  }
+
+  @Test
+  void neighbouringStreamsDoNotOverlap() {
+    SeedSequence seeds = new SeedSequence(7);
+    Set<Long> drawn = new HashSet<>();
+    for (int index = 0; index < 100; index++) {
+      SplittableRandom random = seeds.stream(index);
+      for (int i = 0; i < 1_000; i++) {
+        assertThat(drawn.add(random.nextLong())).isTrue();
+      }
+    }
+  }
+
+  @Test
+  void seedsGiveDifferentStreams() {
+    assertThat(new SeedSequence(1).stream(0).nextLong())
+        .isNotEqualTo(new SeedSequence(2).stream(0).nextLong());
+    assertThat(new SeedSequence(1).stream(1).nextLong())
+        .isNotEqualTo(new SeedSequence(0).stream(0).nextLong());
+  }
+}